@@ -0,0 +1,111 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.repository.ItemSearchIndex;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Starts the application without the web layer on its own in-memory H2 database and seeds it through JDBC.
+ * User 1 owns every item, user 2 is the booker of every booking and the author of every comment.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class BenchmarkContext {
+
+    public static final long OWNER_ID = 1L;
+    public static final long BOOKER_ID = 2L;
+    public static final String SEARCH_TEXT = "дрель";
+
+    private static final String[] WORDS = {"дрель", "перфоратор", "отвертка", "лестница", "палатка", "велосипед",
+            "пила", "шуруповерт", "миксер", "компрессор", "рюкзак", "котелок", "фонарь"};
+    private static final int BATCH_SIZE = 1000;
+    private static final long SEQUENCE_GAP = 100;
+
+    public static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID(),
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.ru.practicum.shareit=WARN",
+                        "--logging.level.org.springframework.transaction=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+    }
+
+    public static void seed(ConfigurableApplicationContext context, int items, int bookings, int commentsPerItem) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        LocalDateTime now = LocalDateTime.now();
+
+        jdbcTemplate.update("INSERT INTO users (user_id, name, email) VALUES (?, ?, ?), (?, ?, ?)",
+                OWNER_ID, "Владелец", "owner@bench.ru", BOOKER_ID, "Арендатор", "booker@bench.ru");
+
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= items; id++) {
+            String description = "Описание: " + WORDS[(int) ((id * 7) % WORDS.length)]
+                    + " и " + WORDS[(int) ((id * 3) % WORDS.length)];
+            rows.add(new Object[]{id, "Вещь " + WORDS[(int) (id % WORDS.length)] + " " + id, description,
+                    id % 10 != 0, OWNER_ID});
+            flush(jdbcTemplate, "INSERT INTO items (item_id, name, description, is_available, owner_id) "
+                    + "VALUES (?, ?, ?, ?, ?)", rows, false);
+        }
+        flush(jdbcTemplate, "INSERT INTO items (item_id, name, description, is_available, owner_id) "
+                + "VALUES (?, ?, ?, ?, ?)", rows, true);
+
+        Status[] statuses = {Status.APPROVED, Status.WAITING, Status.REJECTED, Status.APPROVED};
+        for (long id = 1; id <= bookings; id++) {
+            long itemId = 1 + (id - 1) % Math.max(items, 1);
+            long shift = id % 3 - 1;
+            LocalDateTime start = now.plusDays(shift * (10 + id % 50)).minusHours(1);
+            rows.add(new Object[]{id, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(2 + id % 24)),
+                    itemId, BOOKER_ID, statuses[(int) (id % statuses.length)].name()});
+            flush(jdbcTemplate, "INSERT INTO bookings (booking_id, start_date, end_date, item_id, booker_id, status) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)", rows, false);
+        }
+        flush(jdbcTemplate, "INSERT INTO bookings (booking_id, start_date, end_date, item_id, booker_id, status) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", rows, true);
+
+        long commentId = 0;
+        for (long itemId = 1; itemId <= items; itemId++) {
+            for (int i = 0; i < commentsPerItem; i++) {
+                rows.add(new Object[]{++commentId, "Отзыв " + commentId, itemId, BOOKER_ID,
+                        Timestamp.valueOf(now.minusDays(i + 1))});
+                flush(jdbcTemplate, "INSERT INTO comments (comment_id, text, item_id, author_id, created) "
+                        + "VALUES (?, ?, ?, ?, ?)", rows, false);
+            }
+        }
+        flush(jdbcTemplate, "INSERT INTO comments (comment_id, text, item_id, author_id, created) "
+                + "VALUES (?, ?, ?, ?, ?)", rows, true);
+
+        // Hibernate's pooled optimizer hands out [value - 49, value], so the sequences restart past that window.
+        restartSequence(jdbcTemplate, "users_seq", BOOKER_ID);
+        restartSequence(jdbcTemplate, "items_seq", items);
+        restartSequence(jdbcTemplate, "bookings_seq", bookings);
+        restartSequence(jdbcTemplate, "comments_seq", commentId);
+
+        context.getBean(ItemSearchIndex.class).build();
+    }
+
+    private static void flush(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows, boolean force) {
+        if (rows.size() >= BATCH_SIZE || (force && !rows.isEmpty())) {
+            jdbcTemplate.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+
+    private static void restartSequence(JdbcTemplate jdbcTemplate, String sequence, long maxId) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + SEQUENCE_GAP));
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.UnavailableException;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent booking creation on one hot item or spread over several; the thread count is set with {@code -t}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class BookingCreationContentionBenchmark {
+
+    @Param({"1", "8"})
+    private int items;
+
+    @Param({"100", "100000"})
+    private int slots;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private LocalDateTime firstSlot;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, items, 0, 0);
+        bookingService = context.getBean(BookingService.class);
+        firstSlot = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void create(Outcomes outcomes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long itemId = 1 + random.nextInt(items);
+        LocalDateTime start = firstSlot.plusHours(random.nextInt(slots));
+
+        try {
+            bookingService.create(new CreateBookingDto(start, start.plusMinutes(90), itemId),
+                    BenchmarkContext.BOOKER_ID, itemId);
+            outcomes.created++;
+        } catch (UnavailableException e) {
+            outcomes.rejected++;
+        } catch (ConflictException e) {
+            outcomes.timedOut++;
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+
+        public long created;
+        public long rejected;
+        public long timedOut;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            created = 0;
+            rejected = 0;
+            timedOut = 0;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.repository.BookingIntervalIndex;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overlap checks on one item with many active bookings, against a linear scan over the same intervals.
+ * The repository is a stub that only answers the initial load, so no database is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingIntervalIndexBenchmark {
+
+    private static final long ITEM_ID = 1L;
+    private static final long NEW_BOOKING_ID = -1L;
+
+    @Param({"10000", "100000"})
+    private int bookings;
+
+    private List<BookingInterval> intervals;
+    private BookingIntervalIndex bookingIntervalIndex;
+    private LocalDateTime overlapStart;
+    private LocalDateTime overlapEnd;
+    private LocalDateTime freeStart;
+    private LocalDateTime freeEnd;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime first = LocalDateTime.now().plusDays(1).withNano(0);
+        intervals = new ArrayList<>(bookings);
+        for (long id = 1; id <= bookings; id++) {
+            LocalDateTime start = first.plusHours(id * 2);
+            intervals.add(new BookingInterval(id, start, start.plusHours(1)));
+        }
+
+        BookingInterval middle = intervals.get(bookings / 2);
+        overlapStart = middle.getStart().plusMinutes(10);
+        overlapEnd = middle.getEnd().plusMinutes(10);
+        freeStart = middle.getEnd().plusMinutes(10);
+        freeEnd = middle.getEnd().plusMinutes(20);
+
+        BookingRepository bookingRepository = (BookingRepository) Proxy.newProxyInstance(
+                BookingRepository.class.getClassLoader(), new Class<?>[]{BookingRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findIntervalsByItemId")) {
+                        return intervals;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        bookingIntervalIndex = new BookingIntervalIndex(bookingRepository);
+        bookingIntervalIndex.tryReserve(ITEM_ID, NEW_BOOKING_ID, freeStart, freeEnd);
+        bookingIntervalIndex.release(ITEM_ID, NEW_BOOKING_ID, freeStart);
+    }
+
+    @Benchmark
+    public boolean indexRejectsOverlap() {
+        return bookingIntervalIndex.tryReserve(ITEM_ID, NEW_BOOKING_ID, overlapStart, overlapEnd);
+    }
+
+    @Benchmark
+    public boolean indexReservesAndReleases() {
+        boolean reserved = bookingIntervalIndex.tryReserve(ITEM_ID, NEW_BOOKING_ID, freeStart, freeEnd);
+        bookingIntervalIndex.release(ITEM_ID, NEW_BOOKING_ID, freeStart);
+
+        return reserved;
+    }
+
+    @Benchmark
+    public boolean linearScan() {
+        for (BookingInterval interval : intervals) {
+            if (interval.getStart().isBefore(overlapEnd) && interval.getEnd().isAfter(overlapStart)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
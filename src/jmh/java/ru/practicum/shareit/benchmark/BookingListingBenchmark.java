@@ -0,0 +1,92 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Booker listing loaded as managed entities and mapped, against the constructor projection the service uses.
+ * Run with {@code -prof gc} to compare gc.alloc.rate.norm, the bytes allocated per listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingListingBenchmark {
+
+    private static final String ENTITIES = "SELECT b from Booking b JOIN FETCH b.item i JOIN FETCH b.booker u "
+            + "WHERE u.id = :userId ORDER BY b.start DESC";
+    private static final String PROJECTION = BookingRepository.BOOKING_DTO
+            + "WHERE u.id = :userId ORDER BY b.start DESC";
+
+    @Param({"100", "1000"})
+    private int bookings;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, 100, bookings, 0);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDto> entities() {
+        return inTransaction(entityManager -> entityManager.createQuery(ENTITIES, Booking.class)
+                .setParameter("userId", BenchmarkContext.BOOKER_ID)
+                .getResultList()
+                .stream()
+                .map(BookingMapper::toDto)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<BookingDto> projection() {
+        return inTransaction(entityManager -> entityManager.createQuery(PROJECTION, BookingDto.class)
+                .setParameter("userId", BenchmarkContext.BOOKER_ID)
+                .getResultList());
+    }
+
+    private List<BookingDto> inTransaction(Function<EntityManager, List<BookingDto>> query) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            List<BookingDto> result = query.apply(entityManager);
+            entityManager.getTransaction().commit();
+
+            return result;
+        } finally {
+            entityManager.close();
+        }
+    }
+}
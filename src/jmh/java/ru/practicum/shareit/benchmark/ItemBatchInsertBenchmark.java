@@ -0,0 +1,72 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.CreateItemsResultDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * POST /items/batch against the same number of single POST /items calls, measured at the service layer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemBatchInsertBenchmark {
+
+    @Param({"1000"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private List<CreateItemDto> itemDtos;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, 0, 0, 0);
+        itemService = context.getBean(ItemService.class);
+
+        itemDtos = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            itemDtos.add(new CreateItemDto(null, "Вещь " + i, "Описание вещи " + i, true));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CreateItemsResultDto batch() {
+        return itemService.createAll(BenchmarkContext.OWNER_ID, itemDtos);
+    }
+
+    @Benchmark
+    public int single() {
+        for (CreateItemDto itemDto : itemDtos) {
+            itemService.create(BenchmarkContext.OWNER_ID, itemDto);
+        }
+
+        return itemDtos.size();
+    }
+}
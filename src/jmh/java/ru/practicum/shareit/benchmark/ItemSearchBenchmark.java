@@ -0,0 +1,74 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.item.model.IndexedItem;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemSearchIndex;
+import ru.practicum.shareit.util.FromSizeRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of search results from the in-memory index against the LIKE query it replaces, for a common word
+ * and for a word no item has, which makes the LIKE query read the whole table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemSearchBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000", "100000", "1000000"})
+    private int items;
+
+    @Param({BenchmarkContext.SEARCH_TEXT, "отсутствует"})
+    private String text;
+
+    private ConfigurableApplicationContext context;
+    private ItemSearchIndex itemSearchIndex;
+    private ItemRepository itemRepository;
+    private FromSizeRequest page;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, items, 0, 0);
+        itemSearchIndex = context.getBean(ItemSearchIndex.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        page = FromSizeRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<IndexedItem> index() {
+        return itemSearchIndex.search(text, 0, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Item> like() {
+        return itemRepository.search(text, 0L, page);
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoShortResponse;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.comment.CommentDtoResponse;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.util.IsoLocalDateTimeSerializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes booking and owner item listings of {@code size} elements the way the message converter does, with the
+ * writer looked up for every response, and with a writer built once. {@code mapper} is Boot's default setup,
+ * the same plus Blackbird, or the application's setup with the date serializer as well. Output is counted and
+ * dropped, so the score is serialization CPU only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"1000", "10000"})
+    private int size;
+
+    @Param({"default", "blackbird", "tuned"})
+    private String mapper;
+
+    private ObjectMapper objectMapper;
+    private JavaType bookingListType;
+    private JavaType itemListType;
+    private ObjectWriter bookingListWriter;
+    private ObjectWriter itemListWriter;
+    private List<BookingDto> bookings;
+    private List<ItemDtoResponse> items;
+    private final Sink out = new Sink();
+
+    @Setup
+    public void setUp() {
+        List<Module> modules = new ArrayList<>();
+        if (!"default".equals(mapper)) {
+            modules.add(new BlackbirdModule());
+        }
+        if ("tuned".equals(mapper)) {
+            modules.add(new SimpleModule("shareit-iso-date-time")
+                    .addSerializer(LocalDateTime.class, new IsoLocalDateTimeSerializer()));
+        }
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(modules.toArray(new Module[0]))
+                .build();
+
+        bookingListType = objectMapper.getTypeFactory().constructType(new TypeReference<List<BookingDto>>() {
+        });
+        itemListType = objectMapper.getTypeFactory().constructType(new TypeReference<List<ItemDtoResponse>>() {
+        });
+        bookingListWriter = objectMapper.writerFor(bookingListType);
+        itemListWriter = objectMapper.writerFor(itemListType);
+
+        LocalDateTime now = LocalDateTime.now();
+        bookings = new ArrayList<>(size);
+        items = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            LocalDateTime start = now.plusHours(i);
+            bookings.add(new BookingDto(i, start, start.plusHours(2), i, "Дрель " + i, 2L, "Арендатор",
+                    Status.APPROVED));
+            items.add(new ItemDtoResponse(i, "Дрель " + i, "Простая дрель номер " + i, true,
+                    new BookingDtoShortResponse(i, start.minusDays(1), start.minusHours(20), i, 2L),
+                    new BookingDtoShortResponse(i + 1, start.plusDays(1), start.plusDays(2), i, 3L),
+                    List.of(new CommentDtoResponse(i, "Отличная дрель", i, "Дрель " + i, 2L, "Арендатор",
+                            start.minusHours(1))), 1L));
+        }
+    }
+
+    @Benchmark
+    public void bookingsPerResponseWriter() throws IOException {
+        objectMapper.writerFor(bookingListType).writeValue(out, bookings);
+    }
+
+    @Benchmark
+    public void bookingsPrebuiltWriter() throws IOException {
+        bookingListWriter.writeValue(out, bookings);
+    }
+
+    @Benchmark
+    public void itemsPerResponseWriter() throws IOException {
+        objectMapper.writerFor(itemListType).writeValue(out, items);
+    }
+
+    @Benchmark
+    public void itemsPrebuiltWriter() throws IOException {
+        itemListWriter.writeValue(out, items);
+    }
+
+    /**
+     * Jackson closes the target after every value, so this one ignores {@code close}.
+     */
+    private static class Sink extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
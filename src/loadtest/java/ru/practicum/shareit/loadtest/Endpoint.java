@@ -0,0 +1,20 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum Endpoint {
+    USER("user", "GET /users/{id}"),
+    ITEMS("items", "GET /items"),
+    ITEM("item", "GET /items/{id}"),
+    SEARCH("search", "GET /items/search"),
+    BOOKINGS("bookings", "GET /bookings"),
+    OWNER_BOOKINGS("owner-bookings", "GET /bookings/owner"),
+    BOOK("book", "POST /bookings"),
+    COMMENT("comment", "POST /items/{id}/comment");
+
+    private final String key;
+    private final String label;
+}
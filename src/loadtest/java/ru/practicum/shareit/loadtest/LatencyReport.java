@@ -0,0 +1,126 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.Value;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms in microseconds. 4xx answers are expected under a realistic mix
+ * (overlapping bookings, for example) and are counted apart from 5xx and I/O failures.
+ */
+public class LatencyReport {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> rejected = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> failed = new EnumMap<>(Endpoint.class);
+
+    public LatencyReport() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+            rejected.put(endpoint, new LongAdder());
+            failed.put(endpoint, new LongAdder());
+        }
+    }
+
+    public void record(Endpoint endpoint, long elapsedNanos, int status) {
+        recorders.get(endpoint).recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos),
+                HIGHEST_TRACKABLE_MICROS));
+        if (status >= 500) {
+            failed.get(endpoint).increment();
+        } else if (status >= 400) {
+            rejected.get(endpoint).increment();
+        }
+    }
+
+    public void recordFailure(Endpoint endpoint) {
+        failed.get(endpoint).increment();
+    }
+
+    public List<EndpointStats> write(Path reportDir, int durationSeconds, PrintStream out) throws IOException {
+        Files.createDirectories(reportDir);
+
+        List<EndpointStats> stats = new ArrayList<>();
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = recorders.get(endpoint).getIntervalHistogram();
+            long rejectedCount = rejected.get(endpoint).sum();
+            long failedCount = failed.get(endpoint).sum();
+            if (histogram.getTotalCount() == 0 && failedCount == 0) {
+                continue;
+            }
+
+            total.add(histogram);
+            stats.add(toStats(endpoint.getLabel(), histogram, rejectedCount, failedCount, durationSeconds));
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(
+                    reportDir.resolve(endpoint.getKey() + ".hgrm")), false, StandardCharsets.UTF_8)) {
+                histogram.outputPercentileDistribution(hgrm, MICROS_PER_MILLI);
+            }
+        }
+        stats.add(toStats("TOTAL", total, stats.stream().mapToLong(EndpointStats::getRejected).sum(),
+                stats.stream().mapToLong(EndpointStats::getFailed).sum(), durationSeconds));
+
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(reportDir.resolve("report.json").toFile(), stats);
+        try (PrintStream report = new PrintStream(Files.newOutputStream(reportDir.resolve("report.txt")),
+                false, StandardCharsets.UTF_8)) {
+            print(stats, report);
+        }
+        print(stats, out);
+
+        return stats;
+    }
+
+    private static EndpointStats toStats(String endpoint, Histogram histogram, long rejected, long failed,
+                                         int durationSeconds) {
+        return new EndpointStats(endpoint,
+                histogram.getTotalCount(),
+                (double) histogram.getTotalCount() / durationSeconds,
+                rejected,
+                failed,
+                histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    private static void print(List<EndpointStats> stats, PrintStream out) {
+        out.printf("%-28s %9s %9s %7s %7s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "4xx", "failed", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (EndpointStats endpoint : stats) {
+            out.printf("%-28s %9d %9.1f %7d %7d %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.getEndpoint(), endpoint.getRequests(), endpoint.getThroughput(),
+                    endpoint.getRejected(), endpoint.getFailed(),
+                    endpoint.getP50(), endpoint.getP99(), endpoint.getP999(), endpoint.getMax());
+        }
+    }
+
+    @Value
+    public static class EndpointStats {
+        String endpoint;
+        long requests;
+        double throughput;
+        long rejected;
+        long failed;
+        double p50;
+        double p99;
+        double p999;
+        double max;
+    }
+}
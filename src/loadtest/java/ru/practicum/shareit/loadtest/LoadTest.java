@@ -0,0 +1,244 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Starts ShareIt on a fresh in-memory H2 with a random port, seeds users and items through the API and
+ * then runs a closed-loop workload: every virtual user is a thread that acts as one seeded user and calls
+ * endpoints picked by the configured weights. Latencies are recorded only after the warmup.
+ * Reports go to {@code report-dir}: report.txt, report.json and one .hgrm distribution per endpoint.
+ */
+@Slf4j
+public class LoadTest {
+
+    private static final String HEADER = "X-Sharer-User-Id";
+    private static final String[] WORDS = {"дрель", "перфоратор", "отвертка", "лестница", "палатка", "велосипед",
+            "пила", "шуруповерт", "миксер", "компрессор", "рюкзак", "котелок", "фонарь"};
+
+    private final LoadTestSettings settings;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LatencyReport report = new LatencyReport();
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<Long> itemIds = new ArrayList<>();
+    private final Map<Long, Long> itemOwners = new HashMap<>();
+    private final Map<Long, List<Long>> bookedItems = new HashMap<>();
+    private String baseUrl;
+
+    LoadTest(LoadTestSettings settings) {
+        this.settings = settings;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadTest(LoadTestSettings.parse(args)).run();
+    }
+
+    List<LatencyReport.EndpointStats> run() throws Exception {
+        List<String> args = new ArrayList<>(List.of("--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest-" + UUID.randomUUID(),
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.ru.practicum.shareit=WARN",
+                "--logging.level.ru.practicum.shareit.loadtest=INFO",
+                "--logging.level.org.springframework.transaction=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                "--shareit.threads.virtual.enabled=" + settings.isVirtualThreads()));
+        if (settings.getTomcatThreads() != null) {
+            args.add("--server.tomcat.threads.max=" + settings.getTomcatThreads());
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItApp.class)
+                .run(args.toArray(String[]::new))) {
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            seed(context.getBean(JdbcTemplate.class));
+            log.info("Данные подготовлены: пользователей {}, вещей {}. Прогрев {} с, замер {} с, "
+                            + "виртуальных пользователей {}, потоки {}.", userIds.size(), itemIds.size(),
+                    settings.getWarmupSeconds(), settings.getDurationSeconds(), settings.getVirtualUsers(),
+                    settings.isVirtualThreads() ? "виртуальные" : "платформенные");
+
+            long measureFrom = System.nanoTime() + Duration.ofSeconds(settings.getWarmupSeconds()).toNanos();
+            long deadline = measureFrom + Duration.ofSeconds(settings.getDurationSeconds()).toNanos();
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < settings.getVirtualUsers(); i++) {
+                Long userId = userIds.get(i % userIds.size());
+                Thread thread = new Thread(() -> virtualUser(userId, measureFrom, deadline), "virtual-user-" + i);
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            List<LatencyReport.EndpointStats> stats = report.write(settings.getReportDir(),
+                    settings.getDurationSeconds(), System.out);
+            log.info("Отчет записан в {}.", settings.getReportDir().toAbsolutePath());
+
+            return stats;
+        }
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) throws IOException, InterruptedException {
+        for (int i = 0; i < settings.getUsers(); i++) {
+            Map<String, Object> user = Map.of("name", "Пользователь " + i, "email", "user" + i + "@loadtest.ru");
+            userIds.add(objectMapper.readTree(send("POST", "/users", null, user).body()).get("id").asLong());
+        }
+
+        for (Long userId : userIds) {
+            List<Map<String, Object>> items = new ArrayList<>();
+            for (int i = 0; i < settings.getItemsPerUser(); i++) {
+                int word = (int) ((userId * 31 + i) % WORDS.length);
+                String description = "Описание: " + WORDS[(word * 7) % WORDS.length] + " и " + WORDS[i % WORDS.length];
+                items.add(Map.of("name", "Вещь " + WORDS[word] + " " + i, "description", description,
+                        "available", true));
+            }
+            JsonNode result = objectMapper.readTree(send("POST", "/items/batch", userId, items).body());
+            for (JsonNode id : result.get("createdIds")) {
+                itemIds.add(id.asLong());
+                itemOwners.put(id.asLong(), userId);
+            }
+        }
+
+        // Comments need a finished booking, which the API cannot create, so those go straight to the database.
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> pastBookings = new ArrayList<>();
+        for (Long userId : userIds) {
+            List<Long> booked = new ArrayList<>();
+            for (int i = 0; i < settings.getPastBookingsPerUser(); i++) {
+                Long itemId = randomItemNotOwnedBy(userId);
+                booked.add(itemId);
+                pastBookings.add(new Object[]{Timestamp.valueOf(now.minusDays(10)),
+                        Timestamp.valueOf(now.minusDays(9)), itemId, userId});
+            }
+            bookedItems.put(userId, booked);
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (booking_id, start_date, end_date, item_id, booker_id, status) "
+                + "VALUES (NEXT VALUE FOR bookings_seq, ?, ?, ?, ?, 'APPROVED')", pastBookings);
+    }
+
+    private void virtualUser(Long userId, long measureFrom, long deadline) {
+        List<Endpoint> endpoints = new ArrayList<>(settings.getMix().keySet());
+        int totalWeight = settings.getMix().values().stream().mapToInt(Integer::intValue).sum();
+
+        while (System.nanoTime() < deadline) {
+            Endpoint endpoint = pick(endpoints, totalWeight);
+            long start = System.nanoTime();
+            try {
+                int status = call(endpoint, userId);
+                if (start >= measureFrom) {
+                    report.record(endpoint, System.nanoTime() - start, status);
+                }
+                if (settings.getThinkTimeMillis() > 0) {
+                    Thread.sleep(settings.getThinkTimeMillis());
+                }
+            } catch (IOException e) {
+                if (start >= measureFrom) {
+                    report.recordFailure(endpoint);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private Endpoint pick(List<Endpoint> endpoints, int totalWeight) {
+        int value = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Endpoint endpoint : endpoints) {
+            value -= settings.getMix().get(endpoint);
+            if (value < 0) {
+                return endpoint;
+            }
+        }
+
+        return endpoints.get(endpoints.size() - 1);
+    }
+
+    private int call(Endpoint endpoint, Long userId) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (endpoint) {
+            case USER:
+                return send("GET", "/users/" + userId, userId, null).statusCode();
+            case ITEMS:
+                return send("GET", "/items", userId, null).statusCode();
+            case ITEM:
+                return send("GET", "/items/" + itemIds.get(random.nextInt(itemIds.size())), userId, null)
+                        .statusCode();
+            case SEARCH:
+                return send("GET", "/items/search?text="
+                        + URLEncoder.encode(WORDS[random.nextInt(WORDS.length)], StandardCharsets.UTF_8), userId, null)
+                        .statusCode();
+            case BOOKINGS:
+                return send("GET", "/bookings", userId, null).statusCode();
+            case OWNER_BOOKINGS:
+                return send("GET", "/bookings/owner", userId, null).statusCode();
+            case BOOK:
+                LocalDateTime start = LocalDateTime.now().plusDays(1 + random.nextInt(3650))
+                        .plusHours(random.nextInt(24)).withNano(0);
+                Map<String, Object> booking = new LinkedHashMap<>();
+                booking.put("itemId", randomItemNotOwnedBy(userId));
+                booking.put("start", start.toString());
+                booking.put("end", start.plusHours(1 + random.nextInt(48)).toString());
+                return send("POST", "/bookings", userId, booking).statusCode();
+            case COMMENT:
+                List<Long> booked = bookedItems.get(userId);
+                return send("POST", "/items/" + booked.get(random.nextInt(booked.size())) + "/comment", userId,
+                        Map.of("text", "Отзыв пользователя " + userId)).statusCode();
+            default:
+                throw new IllegalStateException("Неизвестный элемент нагрузки: " + endpoint);
+        }
+    }
+
+    private Long randomItemNotOwnedBy(Long userId) {
+        Long itemId;
+        do {
+            itemId = itemIds.get(ThreadLocalRandom.current().nextInt(itemIds.size()));
+        } while (itemOwners.get(itemId).equals(userId));
+
+        return itemId;
+    }
+
+    private HttpResponse<String> send(String method, String path, Long userId, Object body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+        if (userId != null) {
+            request.header(HEADER, userId.toString());
+        }
+        request.method(method, body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings passed as {@code key=value} program arguments, e.g. {@code virtual-users=100 duration=120
+ * mix=search=50,item=50}. Endpoints missing from the mix are not called. {@code threads=virtual} starts the
+ * application with virtual-thread request handling, {@code tomcat-threads} caps the platform worker pool.
+ */
+@Getter
+public class LoadTestSettings {
+
+    private static final String DEFAULT_MIX =
+            "user=5,items=10,item=20,search=25,bookings=15,owner-bookings=10,book=10,comment=5";
+
+    private final int virtualUsers;
+    private final int warmupSeconds;
+    private final int durationSeconds;
+    private final int users;
+    private final int itemsPerUser;
+    private final int pastBookingsPerUser;
+    private final long thinkTimeMillis;
+    private final Map<Endpoint, Integer> mix;
+    private final Path reportDir;
+    private final boolean virtualThreads;
+    private final Integer tomcatThreads;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, String> values;
+
+    private LoadTestSettings(Map<String, String> values) {
+        this.values = values;
+        virtualUsers = Integer.parseInt(values.getOrDefault("virtual-users", "50"));
+        warmupSeconds = Integer.parseInt(values.getOrDefault("warmup", "10"));
+        durationSeconds = Integer.parseInt(values.getOrDefault("duration", "60"));
+        users = Integer.parseInt(values.getOrDefault("users", "200"));
+        itemsPerUser = Integer.parseInt(values.getOrDefault("items-per-user", "10"));
+        pastBookingsPerUser = Integer.parseInt(values.getOrDefault("past-bookings-per-user", "3"));
+        thinkTimeMillis = Long.parseLong(values.getOrDefault("think-time-ms", "0"));
+        mix = parseMix(values.getOrDefault("mix", DEFAULT_MIX));
+        reportDir = Path.of(values.getOrDefault("report-dir", "target/loadtest"));
+        virtualThreads = parseThreads(values.getOrDefault("threads", "platform"));
+        tomcatThreads = values.containsKey("tomcat-threads") ? Integer.valueOf(values.get("tomcat-threads")) : null;
+
+        if (virtualUsers <= 0 || durationSeconds <= 0 || users < 2 || itemsPerUser <= 0 || mix.isEmpty()) {
+            throw new IllegalArgumentException("Некорректные параметры нагрузочного теста: " + values);
+        }
+        // A comment is accepted only from a user with a finished booking of the item.
+        if (pastBookingsPerUser < 0 || pastBookingsPerUser == 0 && mix.containsKey(Endpoint.COMMENT)) {
+            throw new IllegalArgumentException("Для отзывов в нагрузке нужна хотя бы одна прошедшая бронь "
+                    + "на пользователя: past-bookings-per-user=" + pastBookingsPerUser);
+        }
+    }
+
+    public static LoadTestSettings parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Ожидался аргумент вида key=value: " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        return new LoadTestSettings(values);
+    }
+
+    /**
+     * The same settings with another thread mode and report directory, for side-by-side runs.
+     */
+    public LoadTestSettings withThreads(boolean virtual, Path reportDir) {
+        Map<String, String> copy = new HashMap<>(values);
+        copy.put("threads", virtual ? "virtual" : "platform");
+        copy.put("report-dir", reportDir.toString());
+
+        return new LoadTestSettings(copy);
+    }
+
+    private static boolean parseThreads(String threads) {
+        switch (threads) {
+            case "platform":
+                return false;
+            case "virtual":
+                return true;
+            default:
+                throw new IllegalArgumentException("Режим потоков должен быть platform или virtual: " + threads);
+        }
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<String, Endpoint> endpoints = new HashMap<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            endpoints.put(endpoint.getKey(), endpoint);
+        }
+
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            Endpoint endpoint = endpoints.get(parts[0].trim());
+            if (endpoint == null || parts.length != 2) {
+                throw new IllegalArgumentException("Неизвестный элемент нагрузки: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(endpoint, weight);
+            }
+        }
+
+        return weights;
+    }
+}
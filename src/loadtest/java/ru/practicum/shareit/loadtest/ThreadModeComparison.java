@@ -0,0 +1,47 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the same workload twice, on Tomcat's platform worker pool and on virtual threads, each against its own
+ * fresh application, and prints both next to each other. Needs {@code java} 21+ on the PATH. Accepts the
+ * {@link LoadTest} arguments; a burst of owner listings under many virtual users shows the difference best, e.g.
+ * {@code virtual-users=1000 tomcat-threads=50 mix=owner-bookings=30,item=40,search=30}.
+ */
+@Slf4j
+public class ThreadModeComparison {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.parse(args);
+
+        log.info("Прогон на платформенных потоках.");
+        List<LatencyReport.EndpointStats> platform = new LoadTest(settings
+                .withThreads(false, settings.getReportDir().resolve("platform"))).run();
+        log.info("Прогон на виртуальных потоках.");
+        List<LatencyReport.EndpointStats> virtual = new LoadTest(settings
+                .withThreads(true, settings.getReportDir().resolve("virtual"))).run();
+
+        print(platform, virtual);
+    }
+
+    private static void print(List<LatencyReport.EndpointStats> platform, List<LatencyReport.EndpointStats> virtual) {
+        Map<String, LatencyReport.EndpointStats> byEndpoint = virtual.stream()
+                .collect(Collectors.toMap(LatencyReport.EndpointStats::getEndpoint, Function.identity()));
+
+        System.out.printf("%n%-28s %12s %12s %12s %12s%n",
+                "endpoint", "platform r/s", "virtual r/s", "platform p99", "virtual p99");
+        for (LatencyReport.EndpointStats before : platform) {
+            LatencyReport.EndpointStats after = byEndpoint.get(before.getEndpoint());
+            if (after == null) {
+                continue;
+            }
+            System.out.printf("%-28s %12.1f %12.1f %12.2f %12.2f%n", before.getEndpoint(),
+                    before.getThroughput(), after.getThroughput(), before.getP99(), after.getP99());
+        }
+    }
+}
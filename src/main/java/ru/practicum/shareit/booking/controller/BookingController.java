@@ -3,6 +3,8 @@ package ru.practicum.shareit.booking.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,9 +15,14 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.dto.UpdateBookingsDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.util.ETags;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -28,13 +35,16 @@ public class BookingController {
 
     private final BookingService bookingService;
     private static final String HEADER = "X-Sharer-User-Id";
+    private static final String NDJSON = "application/x-ndjson";
 
     @GetMapping("/{bookingId}")
-    public BookingDto getById(@PathVariable Long bookingId,
-                              @RequestHeader(name = HEADER) Long bookerId) {
+    public ResponseEntity<BookingDto> getById(@PathVariable Long bookingId,
+                                              @RequestHeader(name = HEADER) Long bookerId,
+                                              WebRequest request) {
         log.info("Получен запрос GET /bookings/{}.", bookingId);
 
-        return bookingService.getById(bookingId, bookerId);
+        return ETags.respond(request, () -> bookingService.getETag(bookingId, bookerId),
+                () -> bookingService.getById(bookingId, bookerId));
     }
 
     @GetMapping("/owner")
@@ -45,6 +55,26 @@ public class BookingController {
         return bookingService.getAllByOwnerId(ownerId, state);
     }
 
+    @GetMapping(value = "/owner/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportAllByOwner(@RequestHeader(name = HEADER) Long ownerId,
+                                                                  @RequestParam(defaultValue = "ALL") String state) {
+        log.info("Получен запрос GET /bookings/owner/export?state={}.", state);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(bookingService.exportAllByOwnerId(ownerId, state));
+    }
+
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportAllByBooker(@RequestHeader(name = HEADER) Long bookerId,
+                                                                   @RequestParam(defaultValue = "ALL") String state) {
+        log.info("Получен запрос GET /bookings/export?state={}.", state);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(bookingService.exportAllByBookerId(bookerId, state));
+    }
+
     @GetMapping
     public List<BookingDto> getAllByBooker(@RequestHeader(name = HEADER) Long bookerId,
                                            @RequestParam(defaultValue = "ALL") String state) {
@@ -62,6 +92,15 @@ public class BookingController {
         return bookingService.create(createBookingDto, userId, createBookingDto.getItemId());
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionDto> updateAll(@RequestHeader(name = HEADER) Long userId,
+                                              @RequestParam boolean approved,
+                                              @RequestBody UpdateBookingsDto updateBookingsDto) {
+        log.info("Получен запрос PATCH /bookings/batch?approved={}.", approved);
+
+        return bookingService.updateAll(userId, updateBookingsDto, approved);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto update(@RequestHeader(name = HEADER) Long userId,
                              @PathVariable Long bookingId,
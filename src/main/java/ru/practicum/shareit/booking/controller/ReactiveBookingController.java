@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.ReactiveBookingService;
+
+/**
+ * Booking listings streamed as NDJSON, chosen with {@code Accept: application/x-ndjson} on the same paths as
+ * {@link BookingController}. Elements are written as R2DBC emits them, one request at a time. This is streaming,
+ * not non-blocking: the app runs on Spring MVC and the H2 R2DBC driver blocks on its own threads underneath.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+@RequestMapping(path = "/bookings", produces = "application/x-ndjson")
+public class ReactiveBookingController {
+
+    private static final String HEADER = "X-Sharer-User-Id";
+
+    private final ReactiveBookingService reactiveBookingService;
+
+    @GetMapping("/owner")
+    public Flux<BookingDto> getAllByOwner(@RequestHeader(name = HEADER) Long ownerId,
+                                          @RequestParam(defaultValue = "ALL") String state) {
+        log.info("Получен потоковый запрос GET /bookings/owner?state={}.", state);
+
+        return reactiveBookingService.getAllByOwnerId(ownerId, state);
+    }
+
+    @GetMapping
+    public Flux<BookingDto> getAllByBooker(@RequestHeader(name = HEADER) Long bookerId,
+                                           @RequestParam(defaultValue = "ALL") String state) {
+        log.info("Получен потоковый запрос GET /bookings?state={}.", state);
+
+        return reactiveBookingService.getAllByBookerId(bookerId, state);
+    }
+}
@@ -29,6 +29,11 @@ public class BookingDto {
 
     private Status status;
 
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, Long itemId, String itemName,
+                      Long bookerId, String bookerName, Status status) {
+        this(id, start, end, new Item(itemId, itemName), new Booker(bookerId, bookerName), status);
+    }
+
     @Data
     public static class Booker {
         private final Long id;
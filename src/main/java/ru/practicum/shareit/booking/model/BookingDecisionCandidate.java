@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class BookingDecisionCandidate {
+
+    private Long id;
+
+    private Status status;
+
+    private Long itemId;
+
+    private Long ownerId;
+
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+
+    private Long version;
+}
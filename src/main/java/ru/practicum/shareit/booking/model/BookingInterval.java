@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class BookingInterval {
+
+    private Long id;
+
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Value;
+
+/**
+ * What a booking view depends on, read without loading the booking: its own and its item's versions
+ * and the ids that decide who may see it.
+ */
+@Value
+public class BookingStamp {
+
+    private Long version;
+
+    private Long itemVersion;
+
+    private Long bookerId;
+
+    private Long ownerId;
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.model;
+
+public enum DecisionOutcome {
+    UPDATED,
+    NOT_FOUND,
+    NOT_OWNER,
+    ALREADY_APPROVED,
+    OVERLAP,
+    CONFLICT
+}
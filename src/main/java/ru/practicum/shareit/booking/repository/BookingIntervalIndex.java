@@ -0,0 +1,185 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-item index of unfinished WAITING and APPROVED intervals, sorted by start with a running maximum of ends.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemIntervals> items = new ConcurrentHashMap<>();
+
+    /**
+     * Checks the interval without reserving it, so a booking that is bound to be rejected is never inserted.
+     */
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervals intervals = items.computeIfAbsent(itemId, id -> new ItemIntervals());
+
+        intervals.lock.lock();
+        try {
+            load(itemId, null, intervals);
+
+            return !intervals.overlaps(toSeconds(start), toSeconds(end));
+        } finally {
+            intervals.lock.unlock();
+        }
+    }
+
+    public boolean tryReserve(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervals intervals = items.computeIfAbsent(itemId, id -> new ItemIntervals());
+
+        intervals.lock.lock();
+        try {
+            load(itemId, bookingId, intervals);
+
+            long startSeconds = toSeconds(start);
+            long endSeconds = toSeconds(end);
+            if (intervals.overlaps(startSeconds, endSeconds)) {
+                return false;
+            }
+
+            intervals.insert(bookingId, startSeconds, endSeconds);
+            return true;
+        } finally {
+            intervals.lock.unlock();
+        }
+    }
+
+    public void release(Long itemId, Long bookingId, LocalDateTime start) {
+        ItemIntervals intervals = items.get(itemId);
+        if (intervals == null) {
+            return;
+        }
+
+        intervals.lock.lock();
+        try {
+            intervals.remove(bookingId, toSeconds(start));
+        } finally {
+            intervals.lock.unlock();
+        }
+    }
+
+    public void evict(Long itemId) {
+        items.remove(itemId);
+    }
+
+    private void load(Long itemId, Long bookingId, ItemIntervals intervals) {
+        if (!intervals.loaded) {
+            bookingRepository.findIntervalsByItemId(itemId, ACTIVE_STATUSES, LocalDateTime.now()).stream()
+                    .filter(interval -> !interval.getId().equals(bookingId))
+                    .forEach(interval -> intervals.insert(interval.getId(),
+                            toSeconds(interval.getStart()), toSeconds(interval.getEnd())));
+            intervals.loaded = true;
+        }
+
+        intervals.removeEndedBefore(toSeconds(LocalDateTime.now()));
+    }
+
+    private static long toSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static class ItemIntervals {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private boolean loaded;
+        private int size;
+        private long[] ids = new long[4];
+        private long[] starts = new long[4];
+        private long[] ends = new long[4];
+        private long[] maxEnds = new long[4];
+
+        private boolean overlaps(long start, long end) {
+            int before = firstStartNotBefore(end);
+
+            return before > 0 && maxEnds[before - 1] > start;
+        }
+
+        private void insert(long id, long start, long end) {
+            if (size == starts.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                maxEnds = Arrays.copyOf(maxEnds, capacity);
+            }
+
+            int position = firstStartNotBefore(start);
+            int tail = size - position;
+            System.arraycopy(ids, position, ids, position + 1, tail);
+            System.arraycopy(starts, position, starts, position + 1, tail);
+            System.arraycopy(ends, position, ends, position + 1, tail);
+            ids[position] = id;
+            starts[position] = start;
+            ends[position] = end;
+            size++;
+            recalculateMaxEnds(position);
+        }
+
+        private void remove(long id, long start) {
+            for (int i = firstStartNotBefore(start); i < size && starts[i] == start; i++) {
+                if (ids[i] == id) {
+                    removeRange(i, i + 1);
+                    return;
+                }
+            }
+        }
+
+        private void removeEndedBefore(long now) {
+            int ended = 0;
+            while (ended < size && maxEnds[ended] <= now) {
+                ended++;
+            }
+            if (ended > 0) {
+                removeRange(0, ended);
+            }
+        }
+
+        private void removeRange(int from, int to) {
+            int tail = size - to;
+            System.arraycopy(ids, to, ids, from, tail);
+            System.arraycopy(starts, to, starts, from, tail);
+            System.arraycopy(ends, to, ends, from, tail);
+            size -= to - from;
+            recalculateMaxEnds(from);
+        }
+
+        private void recalculateMaxEnds(int from) {
+            long max = from == 0 ? Long.MIN_VALUE : maxEnds[from - 1];
+            for (int i = from; i < size; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnds[i] = max;
+            }
+        }
+
+        private int firstStartNotBefore(long time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (starts[middle] < time) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+
+            return low;
+        }
+    }
+}
@@ -1,44 +1,99 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoShortResponse;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDecisionCandidate;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStamp;
 import ru.practicum.shareit.booking.model.Status;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerId(Long userId, Sort sort);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    String BOOKING_DTO = "SELECT new ru.practicum.shareit.booking.dto.BookingDto(" +
+            "b.id, b.start, b.end, i.id, i.name, u.id, u.name, b.status) " +
+            "from Booking b JOIN b.item i JOIN b.booker u ";
 
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfter(Long userId, LocalDateTime t1,
-                                                             LocalDateTime t2, Sort sort);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findWithItemAndBookerById(Long id);
 
-    List<Booking> findAllByBookerIdAndEndBefore(Long userId, LocalDateTime time, Sort sort);
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingStamp(" +
+            "b.version, i.version, b.booker.id, i.owner.id) from Booking b JOIN b.item i WHERE b.id = ?1")
+    Optional<BookingStamp> findStampById(Long id);
 
-    List<Booking> findAllByBookerIdAndStartAfter(Long userId, LocalDateTime time, Sort sort);
+    @Query(BOOKING_DTO + "WHERE u.id = ?1")
+    List<BookingDto> findDtosByBookerId(Long userId, Sort sort);
 
-    List<Booking> findAllByBookerIdAndStatus(Long userId, Status status, Sort sort);
+    @Query(BOOKING_DTO + "WHERE u.id = ?1 AND b.start < ?2 AND b.end > ?3")
+    List<BookingDto> findDtosByBookerIdAndStartBeforeAndEndAfter(Long userId, LocalDateTime t1,
+                                                                 LocalDateTime t2, Sort sort);
 
-    List<Booking> findAllByItemOwnerId(Long userId, Sort sort);
+    @Query(BOOKING_DTO + "WHERE u.id = ?1 AND b.end < ?2")
+    List<BookingDto> findDtosByBookerIdAndEndBefore(Long userId, LocalDateTime time, Sort sort);
 
-    List<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfter(Long userId, LocalDateTime t1,
-                                                                LocalDateTime t2, Sort sort);
+    @Query(BOOKING_DTO + "WHERE u.id = ?1 AND b.start > ?2")
+    List<BookingDto> findDtosByBookerIdAndStartAfter(Long userId, LocalDateTime time, Sort sort);
 
-    List<Booking> findAllByItemOwnerIdAndEndBefore(Long userId, LocalDateTime now, Sort sort);
+    @Query(BOOKING_DTO + "WHERE u.id = ?1 AND b.status = ?2")
+    List<BookingDto> findDtosByBookerIdAndStatus(Long userId, Status status, Sort sort);
 
-    List<Booking> findAllByItemOwnerIdAndStartAfter(Long userId, LocalDateTime now, Sort sort);
+    @Query(BOOKING_DTO + "WHERE i.owner.id = ?1")
+    List<BookingDto> findDtosByItemOwnerId(Long userId, Sort sort);
 
-    List<Booking> findAllByItemOwnerIdAndStatus(Long userId, Status waiting, Sort sort);
+    @Query(BOOKING_DTO + "WHERE i.owner.id = ?1 AND b.start < ?2 AND b.end > ?3")
+    List<BookingDto> findDtosByItemOwnerIdAndStartBeforeAndEndAfter(Long userId, LocalDateTime t1,
+                                                                    LocalDateTime t2, Sort sort);
 
-    List<Booking> findAllByItemIdAndBookerIdAndEndBefore(Long itemId, Long userId, LocalDateTime now);
+    @Query(BOOKING_DTO + "WHERE i.owner.id = ?1 AND b.end < ?2")
+    List<BookingDto> findDtosByItemOwnerIdAndEndBefore(Long userId, LocalDateTime now, Sort sort);
 
-    List<Booking> findAllByItemIdAndStatus(Long itemId, Status approved,Sort sort);
+    @Query(BOOKING_DTO + "WHERE i.owner.id = ?1 AND b.start > ?2")
+    List<BookingDto> findDtosByItemOwnerIdAndStartAfter(Long userId, LocalDateTime now, Sort sort);
 
-    Optional<Booking> findFirstByItemIdInAndStartLessThanEqualAndStatus(List<Long> idItems, LocalDateTime now,
-                                                                        Status approved, Sort sort);
+    @Query(BOOKING_DTO + "WHERE i.owner.id = ?1 AND b.status = ?2")
+    List<BookingDto> findDtosByItemOwnerIdAndStatus(Long userId, Status status, Sort sort);
 
-    Optional<Booking> findFirstByItemIdInAndStartAfterAndStatus(List<Long> idItems, LocalDateTime now,
-                                                                Status approved, Sort sort);
-}
\ No newline at end of file
+    @Query("SELECT count(b) > 0 from Booking b WHERE b.item.id = ?1 AND b.booker.id = ?2 AND b.end < ?3")
+    boolean existsByItemIdAndBookerIdAndEndBefore(Long itemId, Long userId, LocalDateTime now);
+
+    @Query("SELECT b from Booking b WHERE b.item.id = ?1 AND b.status = ?2")
+    List<Booking> findAllByItemIdAndStatus(Long itemId, Status approved, Sort sort);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingDtoShortResponse(" +
+            "b.id, b.start, b.end, b.item.id, b.booker.id) from Booking b " +
+            "WHERE b.item.owner.id = ?1 AND b.status = ?3 AND b.start = (" +
+            "SELECT max(last.start) from Booking last " +
+            "WHERE last.item.id = b.item.id AND last.status = ?3 AND last.start <= ?2)")
+    List<BookingDtoShortResponse> findLastByItemOwnerId(Long ownerId, LocalDateTime now, Status status);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingDtoShortResponse(" +
+            "b.id, b.start, b.end, b.item.id, b.booker.id) from Booking b " +
+            "WHERE b.item.owner.id = ?1 AND b.status = ?3 AND b.start = (" +
+            "SELECT min(next.start) from Booking next " +
+            "WHERE next.item.id = b.item.id AND next.status = ?3 AND next.start > ?2)")
+    List<BookingDtoShortResponse> findNextByItemOwnerId(Long ownerId, LocalDateTime now, Status status);
+
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingInterval(b.id, b.start, b.end) from Booking b " +
+            "WHERE b.item.id = ?1 AND b.status in ?2 AND b.end > ?3 " +
+            "ORDER BY b.start")
+    List<BookingInterval> findIntervalsByItemId(Long itemId, List<Status> statuses, LocalDateTime now);
+
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingDecisionCandidate(" +
+            "b.id, b.status, b.item.id, b.item.owner.id, b.start, b.end, b.version) from Booking b " +
+            "WHERE b.id in ?1")
+    List<BookingDecisionCandidate> findDecisionCandidatesByIds(List<Long> bookingIds);
+
+    // One row per booking in the status, or one row without a booking, so the item's owner is always read.
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingDecisionCandidate(" +
+            "b.id, b.status, i.id, i.owner.id, b.start, b.end, b.version) from Item i " +
+            "LEFT JOIN Booking b ON b.item = i AND b.status = ?2 " +
+            "WHERE i.id = ?1")
+    List<BookingDecisionCandidate> findDecisionCandidatesByItemId(Long itemId, Status status);
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDecisionCandidate;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface BookingRepositoryCustom {
+
+    Stream<Booking> streamAllByUserId(Long userId, boolean byOwner, State state, LocalDateTime now, int fetchSize);
+
+    /**
+     * Sets the status of each booking still at the version it was read with; returns one row count per candidate.
+     */
+    int[] updateStatus(List<BookingDecisionCandidate> candidates, Status status);
+
+    void clear();
+}
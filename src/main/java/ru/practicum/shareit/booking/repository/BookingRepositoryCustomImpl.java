@@ -0,0 +1,68 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDecisionCandidate;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    private static final String UPDATE_STATUS = "UPDATE bookings SET status = ?, version = version + 1 "
+            + "WHERE booking_id = ? AND version = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Booking> streamAllByUserId(Long userId, boolean byOwner, State state, LocalDateTime now,
+                                             int fetchSize) {
+        StringBuilder jpql = new StringBuilder("SELECT b from Booking b " +
+                "JOIN FETCH b.item i JOIN FETCH b.booker u WHERE ")
+                .append(byOwner ? "i.owner.id = :userId" : "u.id = :userId")
+                .append(BookingStateFilter.condition(state, "b.start", "b.end", "b.status"))
+                .append(" ORDER BY b.start DESC");
+
+        TypedQuery<Booking> query = entityManager.createQuery(jpql.toString(), Booking.class)
+                .setParameter("userId", userId)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true);
+        if (BookingStateFilter.bindsNow(state)) {
+            query.setParameter("now", now);
+        }
+        if (BookingStateFilter.bindsStatus(state)) {
+            query.setParameter("status", Status.valueOf(state.name()));
+        }
+
+        return query.getResultStream();
+    }
+
+    @Override
+    public int[] updateStatus(List<BookingDecisionCandidate> candidates, Status status) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_STATUS)) {
+                for (BookingDecisionCandidate candidate : candidates) {
+                    statement.setString(1, status.name());
+                    statement.setLong(2, candidate.getId());
+                    statement.setLong(3, candidate.getVersion());
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+    }
+
+    @Override
+    public void clear() {
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.State;
+
+/**
+ * The condition each {@link State} adds to a booking listing, shared by the JPQL export and the R2DBC listing.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class BookingStateFilter {
+
+    static String condition(State state, String start, String end, String status) {
+        switch (state) {
+            case CURRENT:
+                return " AND " + start + " < :now AND " + end + " > :now";
+            case PAST:
+                return " AND " + end + " < :now";
+            case FUTURE:
+                return " AND " + start + " > :now";
+            case WAITING:
+            case REJECTED:
+                return " AND " + status + " = :status";
+            default:
+                return "";
+        }
+    }
+
+    static boolean bindsNow(State state) {
+        return state == State.CURRENT || state == State.PAST || state == State.FUTURE;
+    }
+
+    static boolean bindsStatus(State state) {
+        return state == State.WAITING || state == State.REJECTED;
+    }
+}
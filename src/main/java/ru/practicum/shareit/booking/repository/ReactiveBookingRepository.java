@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking.repository;
+
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoShortResponse;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Booking reads over R2DBC. The listing takes its state conditions from {@link BookingStateFilter}, like the export.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveBookingRepository {
+
+    private static final String BOOKING_DTO = "SELECT b.booking_id, b.start_date, b.end_date, b.status, "
+            + "i.item_id, i.name AS item_name, u.user_id, u.name AS booker_name "
+            + "FROM bookings b JOIN items i ON i.item_id = b.item_id JOIN users u ON u.user_id = b.booker_id ";
+    private static final String SHORT_DTO = "SELECT b.booking_id, b.start_date, b.end_date, b.item_id, b.booker_id "
+            + "FROM bookings b JOIN items i ON i.item_id = b.item_id "
+            + "WHERE i.owner_id = :ownerId AND b.status = :status AND b.start_date = ";
+
+    private final DatabaseClient databaseClient;
+
+    public Flux<BookingDto> findAllByUserId(Long userId, boolean byOwner, State state, LocalDateTime now) {
+        String sql = BOOKING_DTO
+                + (byOwner ? "WHERE i.owner_id = :userId" : "WHERE b.booker_id = :userId")
+                + BookingStateFilter.condition(state, "b.start_date", "b.end_date", "b.status")
+                + " ORDER BY b.start_date DESC";
+
+        DatabaseClient.GenericExecuteSpec query = databaseClient.sql(sql).bind("userId", userId);
+        if (BookingStateFilter.bindsNow(state)) {
+            query = query.bind("now", now);
+        }
+        if (BookingStateFilter.bindsStatus(state)) {
+            query = query.bind("status", state.name());
+        }
+
+        return query.map(ReactiveBookingRepository::toDto).all();
+    }
+
+    public Flux<BookingDtoShortResponse> findLastByItemOwnerId(Long ownerId, LocalDateTime now, Status status) {
+        return databaseClient.sql(SHORT_DTO + "(SELECT max(last.start_date) FROM bookings last "
+                        + "WHERE last.item_id = b.item_id AND last.status = :status AND last.start_date <= :now)")
+                .bind("ownerId", ownerId)
+                .bind("status", status.name())
+                .bind("now", now)
+                .map(ReactiveBookingRepository::toShortDto)
+                .all();
+    }
+
+    public Flux<BookingDtoShortResponse> findNextByItemOwnerId(Long ownerId, LocalDateTime now, Status status) {
+        return databaseClient.sql(SHORT_DTO + "(SELECT min(next.start_date) FROM bookings next "
+                        + "WHERE next.item_id = b.item_id AND next.status = :status AND next.start_date > :now)")
+                .bind("ownerId", ownerId)
+                .bind("status", status.name())
+                .bind("now", now)
+                .map(ReactiveBookingRepository::toShortDto)
+                .all();
+    }
+
+    private static BookingDto toDto(Row row) {
+        return new BookingDto(row.get("booking_id", Long.class),
+                row.get("start_date", LocalDateTime.class),
+                row.get("end_date", LocalDateTime.class),
+                row.get("item_id", Long.class),
+                row.get("item_name", String.class),
+                row.get("user_id", Long.class),
+                row.get("booker_name", String.class),
+                Status.valueOf(row.get("status", String.class)));
+    }
+
+    private static BookingDtoShortResponse toShortDto(Row row) {
+        return new BookingDtoShortResponse(row.get("booking_id", Long.class),
+                row.get("start_date", LocalDateTime.class),
+                row.get("end_date", LocalDateTime.class),
+                row.get("item_id", Long.class),
+                row.get("booker_id", Long.class));
+    }
+}
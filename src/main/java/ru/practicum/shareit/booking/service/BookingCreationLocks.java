@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped per-item locks that serialise booking creation until commit.
+ */
+@Component
+public class BookingCreationLocks {
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+
+    public BookingCreationLocks(@Value("${shareit.bookings.lock.stripes:64}") int stripes,
+                                @Value("${shareit.bookings.lock.timeout:2s}") Duration timeout) {
+        int size = Integer.highestOneBit(Math.max(stripes - 1, 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    public <T> T withLock(Long itemId, Supplier<T> action) {
+        ReentrantLock lock = stripeOf(itemId);
+        try {
+            if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new ConflictException("Вещь сейчас бронируют другие пользователи, повторите попытку");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Ожидание бронирования прервано", e);
+        }
+
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock stripeOf(Long itemId) {
+        int hash = Long.hashCode(itemId);
+
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+}
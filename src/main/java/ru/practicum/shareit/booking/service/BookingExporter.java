@@ -0,0 +1,62 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes bookings as NDJSON while scrolling over the result set, so memory does not depend on history length.
+ */
+@Component
+public class BookingExporter {
+
+    private final BookingRepository bookingRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter bookingWriter;
+    private final int fetchSize;
+
+    public BookingExporter(BookingRepository bookingRepository,
+                           ObjectMapper objectMapper,
+                           @Value("${shareit.bookings.export.fetch-size:500}") int fetchSize) {
+        this.bookingRepository = bookingRepository;
+        this.objectMapper = objectMapper;
+        this.bookingWriter = objectMapper.writerFor(BookingDto.class);
+        this.fetchSize = fetchSize;
+    }
+
+    @Transactional(readOnly = true)
+    public void write(Long userId, boolean byOwner, State state, OutputStream out) throws IOException {
+        try (Stream<Booking> bookings = bookingRepository.streamAllByUserId(userId, byOwner, state,
+                LocalDateTime.now(), fetchSize);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            int written = 0;
+            Iterator<Booking> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                bookingWriter.writeValue(generator, BookingMapper.toDto(iterator.next()));
+                generator.writeRaw('\n');
+
+                if (++written % fetchSize == 0) {
+                    generator.flush();
+                    bookingRepository.clear();
+                }
+            }
+        }
+    }
+}
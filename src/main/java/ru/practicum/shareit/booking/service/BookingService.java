@@ -1,7 +1,10 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.dto.UpdateBookingsDto;
 
 import java.util.List;
 
@@ -11,9 +14,20 @@ public interface BookingService {
 
     BookingDto update(Long userId, Long bookingId, boolean approved);
 
+    List<BookingDecisionDto> updateAll(Long userId, UpdateBookingsDto updateBookingsDto, boolean approved);
+
     BookingDto getById(Long id, Long userId);
 
+    /**
+     * ETag of {@link #getById}, taken from the booking's and item's versions without loading the booking.
+     */
+    String getETag(Long id, Long userId);
+
     List<BookingDto> getAllByBookerId(Long userId, String state);
 
     List<BookingDto> getAllByOwnerId(Long userId, String state);
+
+    StreamingResponseBody exportAllByBookerId(Long userId, String state);
+
+    StreamingResponseBody exportAllByOwnerId(Long userId, String state);
 }
\ No newline at end of file
@@ -1,24 +1,42 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.dto.UpdateBookingsDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDecisionCandidate;
+import ru.practicum.shareit.booking.model.BookingStamp;
+import ru.practicum.shareit.booking.model.DecisionOutcome;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingIntervalIndex;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.item.service.ItemViewCache;
+import ru.practicum.shareit.user.service.UserIdentityCache;
 import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.util.ETags;
+import ru.practicum.shareit.util.OptimisticRetry;
+import ru.practicum.shareit.util.TransactionUtils;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,14 +44,21 @@ import java.util.stream.Collectors;
 public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
     private final ItemRepository itemRepository;
     private final UserServiceImpl userServiceImpl;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemViewCache itemViewCache;
+    private final BookingExporter bookingExporter;
+    private final MeterRegistry meterRegistry;
+    private final OptimisticRetry optimisticRetry;
+    private final BookingCreationLocks bookingCreationLocks;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional(readOnly = true)
     @Override
     public BookingDto getById(Long id, Long userId) {
-        Booking booking = bookingRepository.findById(id).orElseThrow(
+        Booking booking = bookingRepository.findWithItemAndBookerById(id).orElseThrow(
                 () -> new ObjectNotFoundException("Такого бронирования нет!"));
 
         if (booking.getBooker().getId().equals(userId)
@@ -44,42 +69,61 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public String getETag(Long id, Long userId) {
+        BookingStamp stamp = bookingRepository.findStampById(id).orElseThrow(
+                () -> new ObjectNotFoundException("Такого бронирования нет!"));
+
+        if (!stamp.getBookerId().equals(userId) && !stamp.getOwnerId().equals(userId)) {
+            throw new ObjectNotFoundException("Пользователь не является арендатором или владельцем вещи!");
+        }
+
+        // The view also shows the booker's name, which has no version of its own.
+        return ETags.of(id, stamp.getVersion(), stamp.getItemVersion(),
+                userIdentityCache.get(stamp.getBookerId()).getName());
+    }
+
     @Transactional(readOnly = true)
     @Override
     public List<BookingDto> getAllByOwnerId(Long userId, String state) {
         userServiceImpl.throwIfNotExist(userId);
 
         try {
-            List<Booking> bookings;
-            switch (State.valueOf(state)) {
+            State parsedState = State.valueOf(state);
+            Timer.Sample sample = Timer.start(meterRegistry);
+            List<BookingDto> bookings;
+            switch (parsedState) {
                 case ALL:
-                    bookings = bookingRepository.findAllByItemOwnerId(userId,
+                    bookings = bookingRepository.findDtosByItemOwnerId(userId,
                             Sort.by(Sort.Direction.DESC, "start"));
                     break;
                 case CURRENT:
-                    bookings = bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfter(userId,
+                    bookings = bookingRepository.findDtosByItemOwnerIdAndStartBeforeAndEndAfter(userId,
                             LocalDateTime.now(), LocalDateTime.now(), Sort.by(Sort.Direction.DESC, "start"));
                     break;
                 case PAST:
-                    bookings = bookingRepository.findAllByItemOwnerIdAndEndBefore(userId, LocalDateTime.now(),
+                    bookings = bookingRepository.findDtosByItemOwnerIdAndEndBefore(userId, LocalDateTime.now(),
                             Sort.by(Sort.Direction.DESC, "start"));
                     break;
                 case FUTURE:
-                    bookings = bookingRepository.findAllByItemOwnerIdAndStartAfter(userId, LocalDateTime.now(),
+                    bookings = bookingRepository.findDtosByItemOwnerIdAndStartAfter(userId, LocalDateTime.now(),
                             Sort.by(Sort.Direction.DESC, "start"));
                     break;
                 case WAITING:
-                    bookings = bookingRepository.findAllByItemOwnerIdAndStatus(userId, Status.WAITING,
+                    bookings = bookingRepository.findDtosByItemOwnerIdAndStatus(userId, Status.WAITING,
                             Sort.by(Sort.Direction.DESC, "start"));
                     break;
                 case REJECTED:
-                    bookings = bookingRepository.findAllByItemOwnerIdAndStatus(userId, Status.REJECTED,
+                    bookings = bookingRepository.findDtosByItemOwnerIdAndStatus(userId, Status.REJECTED,
                             Sort.by(Sort.Direction.DESC, "start"));
                     break;
                 default:
                     throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
             }
-            return bookings.stream().map(BookingMapper::toDto).collect(Collectors.toList());
+            sample.stop(listQueryTimer("owner", parsedState));
+
+            return bookings;
         } catch (RuntimeException e) {
             throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
         }
@@ -91,84 +135,269 @@ public class BookingServiceImpl implements BookingService {
         userServiceImpl.throwIfNotExist(userId);
 
         try {
-
-            List<Booking> bookings;
-            switch (State.valueOf(state)) {
+            State parsedState = State.valueOf(state);
+            Timer.Sample sample = Timer.start(meterRegistry);
+            List<BookingDto> bookings;
+            switch (parsedState) {
                 case ALL:
-                    bookings = bookingRepository.findAllByBookerId(userId,
+                    bookings = bookingRepository.findDtosByBookerId(userId,
                             Sort.by(Sort.Direction.DESC, "start"));
                     break;
                 case CURRENT:
-                    bookings = bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfter(userId, LocalDateTime.now(),
-                            LocalDateTime.now(), Sort.by(Sort.Direction.DESC, "start"));
+                    bookings = bookingRepository.findDtosByBookerIdAndStartBeforeAndEndAfter(userId,
+                            LocalDateTime.now(), LocalDateTime.now(), Sort.by(Sort.Direction.DESC, "start"));
                     break;
                 case PAST:
-                    bookings = bookingRepository.findAllByBookerIdAndEndBefore(userId, LocalDateTime.now(),
+                    bookings = bookingRepository.findDtosByBookerIdAndEndBefore(userId, LocalDateTime.now(),
                             Sort.by(Sort.Direction.DESC, "start"));
                     break;
                 case FUTURE:
-                    bookings = bookingRepository.findAllByBookerIdAndStartAfter(userId, LocalDateTime.now(),
+                    bookings = bookingRepository.findDtosByBookerIdAndStartAfter(userId, LocalDateTime.now(),
                             Sort.by(Sort.Direction.DESC, "start"));
                     break;
                 case WAITING:
-                    bookings = bookingRepository.findAllByBookerIdAndStatus(userId, Status.WAITING,
+                    bookings = bookingRepository.findDtosByBookerIdAndStatus(userId, Status.WAITING,
                             Sort.by(Sort.Direction.DESC, "start"));
                     break;
                 case REJECTED:
-                    bookings = bookingRepository.findAllByBookerIdAndStatus(userId, Status.REJECTED,
+                    bookings = bookingRepository.findDtosByBookerIdAndStatus(userId, Status.REJECTED,
                             Sort.by(Sort.Direction.DESC, "start"));
                     break;
                 default:
                     throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
             }
-            return bookings.stream().map(BookingMapper::toDto).collect(Collectors.toList());
+            sample.stop(listQueryTimer("booker", parsedState));
+
+            return bookings;
         } catch (RuntimeException e) {
             throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
         }
     }
 
+    @Override
+    public StreamingResponseBody exportAllByBookerId(Long userId, String state) {
+        userServiceImpl.throwIfNotExist(userId);
+        State parsedState = parseState(state);
+
+        return out -> bookingExporter.write(userId, false, parsedState, out);
+    }
 
-    @Transactional
+    @Override
+    public StreamingResponseBody exportAllByOwnerId(Long userId, String state) {
+        userServiceImpl.throwIfNotExist(userId);
+        State parsedState = parseState(state);
+
+        return out -> bookingExporter.write(userId, true, parsedState, out);
+    }
+
+    /**
+     * Checks and inserts one item's bookings one at a time under its creation lock.
+     */
     @Override
     public BookingDto create(CreateBookingDto createBookingDto, Long userId, Long itemId) {
+        return bookingCreationLocks.withLock(itemId,
+                () -> transactionTemplate.execute(status -> book(createBookingDto, userId, itemId)));
+    }
+
+    private BookingDto book(CreateBookingDto createBookingDto, Long userId, Long itemId) {
         Booking booking = BookingMapper.toBooking(createBookingDto);
         setUserAndItemForBooking(booking, userId, itemId);
+        if (!bookingIntervalIndex.isFree(itemId, booking.getStart(), booking.getEnd())) {
+            throw new UnavailableException("Вещь уже забронирована на это время!");
+        }
         booking.setStatus(Status.WAITING);
         bookingRepository.save(booking);
+        reserveInterval(booking);
+        TransactionUtils.afterCommit(() -> itemViewCache.evict(itemId));
 
         return BookingMapper.toDto(booking);
     }
 
-    @Transactional
+    /**
+     * Concurrent decisions on one booking conflict on its version.
+     */
     @Override
     public BookingDto update(Long userId, Long bookingId, boolean approved) {
+        return optimisticRetry.execute(() -> decide(userId, bookingId, approved));
+    }
 
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(
+    private BookingDto decide(Long userId, Long bookingId, boolean approved) {
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId).orElseThrow(
                 () -> new ObjectNotFoundException("Такого бронирования нет!"));
 
         if (booking.getStatus().equals(Status.APPROVED)) {
             throw new UnavailableException("Бронирование уже подтверждено!");
         }
 
-        Item item = itemRepository.findById(booking.getItem().getId())
-                .orElseThrow(() -> new ObjectNotFoundException("Такой вещи нет в базе данных!"));
+        Item item = booking.getItem();
 
         if (!item.getOwner().getId().equals(userId)) {
             throw new ObjectNotFoundException("Пользователь не является владельцем вещи");
         }
 
+        boolean wasActive = isActive(booking.getStatus());
+        boolean reactivated = approved && !wasActive;
         if (approved) {
             booking.setStatus(Status.APPROVED);
+            if (reactivated) {
+                reserveInterval(booking);
+            }
         } else {
             booking.setStatus(Status.REJECTED);
+            if (wasActive) {
+                TransactionUtils.afterCommit(() -> bookingIntervalIndex.release(item.getId(), booking.getId(),
+                        booking.getStart()));
+            }
         }
 
+        TransactionUtils.afterCommit(() -> itemViewCache.evict(item.getId()));
+
         return BookingMapper.toDto(booking);
     }
 
+    /**
+     * Changes each booking only if it still has the version it was read with.
+     */
+    @Override
+    public List<BookingDecisionDto> updateAll(Long userId, UpdateBookingsDto updateBookingsDto, boolean approved) {
+        List<Long> bookingIds = updateBookingsDto.getBookingIds();
+        Long itemId = updateBookingsDto.getItemId();
+        if ((itemId == null) == (bookingIds == null || bookingIds.isEmpty())) {
+            throw new ValidationException("Нужно указать либо список бронирований, либо вещь!");
+        }
+
+        return optimisticRetry.execute(() -> decideAll(userId, bookingIds, itemId, approved));
+    }
+
+    private List<BookingDecisionDto> decideAll(Long userId, List<Long> bookingIds, Long itemId, boolean approved) {
+        Map<Long, DecisionOutcome> outcomes = new LinkedHashMap<>();
+        List<BookingDecisionCandidate> candidates;
+        if (itemId != null) {
+            candidates = bookingRepository.findDecisionCandidatesByItemId(itemId, Status.WAITING);
+            if (candidates.isEmpty()) {
+                throw new ObjectNotFoundException("Такой вещи нет в базе данных!");
+            }
+            if (!candidates.get(0).getOwnerId().equals(userId)) {
+                throw new ObjectNotFoundException("Пользователь не является владельцем вещи");
+            }
+            candidates = candidates.stream()
+                    .filter(candidate -> candidate.getId() != null)
+                    .collect(Collectors.toList());
+        } else {
+            bookingIds.forEach(id -> outcomes.put(id, DecisionOutcome.NOT_FOUND));
+            candidates = bookingRepository.findDecisionCandidatesByIds(bookingIds);
+        }
+
+        List<BookingDecisionCandidate> decided = new ArrayList<>();
+        for (BookingDecisionCandidate candidate : candidates) {
+            DecisionOutcome outcome;
+            if (!candidate.getOwnerId().equals(userId)) {
+                outcome = DecisionOutcome.NOT_OWNER;
+            } else if (candidate.getStatus() == Status.APPROVED) {
+                outcome = DecisionOutcome.ALREADY_APPROVED;
+            } else if (approved && !isActive(candidate.getStatus())
+                    && !reserve(candidate.getItemId(), candidate.getId(), candidate.getStart(), candidate.getEnd())) {
+                outcome = DecisionOutcome.OVERLAP;
+            } else {
+                outcome = DecisionOutcome.UPDATED;
+                decided.add(candidate);
+            }
+            outcomes.put(candidate.getId(), outcome);
+        }
+        if (decided.isEmpty()) {
+            return toDecisionDtos(outcomes);
+        }
+
+        int[] updated = bookingRepository.updateStatus(decided, approved ? Status.APPROVED : Status.REJECTED);
+        List<BookingDecisionCandidate> changed = new ArrayList<>();
+        List<Long> skippedIds = new ArrayList<>();
+        for (int i = 0; i < decided.size(); i++) {
+            BookingDecisionCandidate candidate = decided.get(i);
+            if (updated[i] > 0) {
+                changed.add(candidate);
+                continue;
+            }
+
+            skippedIds.add(candidate.getId());
+            if (approved && !isActive(candidate.getStatus())) {
+                bookingIntervalIndex.release(candidate.getItemId(), candidate.getId(), candidate.getStart());
+            }
+        }
+        if (!skippedIds.isEmpty()) {
+            reportCurrent(skippedIds, outcomes);
+        }
+        if (changed.isEmpty()) {
+            return toDecisionDtos(outcomes);
+        }
+
+        Set<Long> changedItemIds = changed.stream()
+                .map(BookingDecisionCandidate::getItemId)
+                .collect(Collectors.toSet());
+        if (!approved) {
+            changed.stream()
+                    .filter(candidate -> isActive(candidate.getStatus()))
+                    .forEach(candidate -> TransactionUtils.afterCommit(() -> bookingIntervalIndex.release(
+                            candidate.getItemId(), candidate.getId(), candidate.getStart())));
+        }
+        TransactionUtils.afterCommit(() -> changedItemIds.forEach(itemViewCache::evict));
+
+        return toDecisionDtos(outcomes);
+    }
+
+    /**
+     * Outcomes of bookings a concurrent request changed after they were read.
+     */
+    private void reportCurrent(List<Long> bookingIds, Map<Long, DecisionOutcome> outcomes) {
+        bookingIds.forEach(id -> outcomes.put(id, DecisionOutcome.NOT_FOUND));
+        bookingRepository.findDecisionCandidatesByIds(bookingIds).forEach(current -> outcomes.put(current.getId(),
+                current.getStatus() == Status.APPROVED ? DecisionOutcome.ALREADY_APPROVED : DecisionOutcome.CONFLICT));
+    }
+
+    private static List<BookingDecisionDto> toDecisionDtos(Map<Long, DecisionOutcome> outcomes) {
+        return outcomes.entrySet().stream()
+                .map(e -> new BookingDecisionDto(e.getKey(), e.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    private void reserveInterval(Booking booking) {
+        if (!reserve(booking.getItem().getId(), booking.getId(), booking.getStart(), booking.getEnd())) {
+            throw new UnavailableException("Вещь уже забронирована на это время!");
+        }
+    }
+
+    private boolean reserve(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        if (!bookingIntervalIndex.tryReserve(itemId, bookingId, start, end)) {
+            return false;
+        }
+
+        TransactionUtils.afterRollback(() -> bookingIntervalIndex.release(itemId, bookingId, start));
+        return true;
+    }
+
+    /**
+     * Times the listing query, which also builds the DTOs.
+     */
+    private Timer listQueryTimer(String role, State state) {
+        return Timer.builder("shareit.bookings.list.query")
+                .tag("role", role)
+                .tag("state", state.name())
+                .register(meterRegistry);
+    }
+
+    static State parseState(String state) {
+        try {
+            return State.valueOf(state);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
+        }
+    }
+
+    private static boolean isActive(Status status) {
+        return status == Status.WAITING || status == Status.APPROVED;
+    }
+
     private void setUserAndItemForBooking(Booking booking, Long userId, Long itemId) {
-        booking.setBooker(userRepository.findById(userId).orElseThrow(
-                () -> new ObjectNotFoundException("Такого пользователя нет!")));
+        booking.setBooker(userIdentityCache.get(userId));
 
         Item item = itemRepository.findById(itemId).orElseThrow(
                 () -> new ObjectNotFoundException("Такой вещи нет!"));
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.ReactiveBookingRepository;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.user.repository.ReactiveUserRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Booking listings as {@link Flux} streams over R2DBC, with the state filtering of {@link BookingServiceImpl}.
+ * An unknown state is rejected before anything is read; a missing user fails the stream before its first element.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveBookingService {
+
+    private final ReactiveBookingRepository reactiveBookingRepository;
+    private final ReactiveUserRepository reactiveUserRepository;
+
+    public Flux<BookingDto> getAllByBookerId(Long userId, String state) {
+        return getAll(userId, false, BookingServiceImpl.parseState(state));
+    }
+
+    public Flux<BookingDto> getAllByOwnerId(Long userId, String state) {
+        return getAll(userId, true, BookingServiceImpl.parseState(state));
+    }
+
+    private Flux<BookingDto> getAll(Long userId, boolean byOwner, State state) {
+        return reactiveUserRepository.existsById(userId)
+                .flatMapMany(exists -> exists
+                        ? reactiveBookingRepository.findAllByUserId(userId, byOwner, state, LocalDateTime.now())
+                        : Mono.error(new ObjectNotFoundException("Пользователя нет: " + userId)));
+    }
+}
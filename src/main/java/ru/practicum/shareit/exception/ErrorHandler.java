@@ -1,6 +1,7 @@
 package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -37,6 +38,33 @@ public class ErrorHandler {
         );
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse conflictExceptionHandler(final ConflictException exception) {
+        log.error("Конфликт изменений! {}", exception.getMessage());
+        return new ErrorResponse(
+                exception.getMessage()
+        );
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse optimisticLockExceptionHandler(final OptimisticLockingFailureException exception) {
+        log.error("Конфликт изменений! {}", exception.getMessage());
+        return new ErrorResponse(
+                "Данные изменены другим запросом, повторите попытку"
+        );
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse overloadedExceptionHandler(final ServiceOverloadedException exception) {
+        log.warn("Сервис перегружен! {}", exception.getMessage());
+        return new ErrorResponse(
+                exception.getMessage()
+        );
+    }
+
     @ExceptionHandler
     public ErrorResponse handleValidException(final ValidationException exception) {
         log.error("Ошибка валидации! {}", exception.getMessage());
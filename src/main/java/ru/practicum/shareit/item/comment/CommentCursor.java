@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.comment;
+
+import lombok.Value;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.util.CursorCodec;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Position in an item's comments ordered by ({@code created}, {@code id}) descending: the last comment returned.
+ */
+@Value
+public class CommentCursor {
+
+    private static final String SEPARATOR = "/";
+
+    LocalDateTime created;
+
+    Long id;
+
+    public static CommentCursor after(CommentDto comment) {
+        return new CommentCursor(comment.getCreated(), comment.getId());
+    }
+
+    public static CommentCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String[] key = CursorCodec.decodeText(cursor).split(SEPARATOR);
+            return new CommentCursor(LocalDateTime.parse(key[0]), Long.valueOf(key[1]));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new ValidationException("Некорректный курсор: " + cursor);
+        }
+    }
+
+    public String encode() {
+        return CursorCodec.encodeText(created + SEPARATOR + id);
+    }
+}
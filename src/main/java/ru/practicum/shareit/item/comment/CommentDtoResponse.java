@@ -28,6 +28,11 @@ public class CommentDtoResponse {
 
     private LocalDateTime created;
 
+    public CommentDtoResponse(Long id, String text, Long itemId, String itemName, Long authorId, String authorName,
+                              LocalDateTime created) {
+        this(id, text, new ItemComment(itemId, itemName), authorId, authorName, created);
+    }
+
     @Data
     public static class ItemComment {
         private final Long id;
@@ -1,12 +1,30 @@
 package ru.practicum.shareit.item.comment;
 
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
-public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItemId(Long itemId);
+public interface CommentRepository extends JpaRepository<Comment, Long>, CommentRepositoryCustom {
 
-    List<Comment> findByItemIdIn(List<Long> idItems, Sort sort);
-}
\ No newline at end of file
+    String COMMENT_DTO = "SELECT new ru.practicum.shareit.item.comment.CommentDto(c.id, c.text, a.name, c.created) " +
+            "from Comment c JOIN c.author a ";
+
+    @Query(COMMENT_DTO + "WHERE c.item.id = ?1 ORDER BY c.created DESC, c.id DESC")
+    List<CommentDto> findNewestDtosByItemId(Long itemId, Pageable page);
+
+    /**
+     * The page of an item's comments that follows the comment ({@code created}, {@code id}), newest first.
+     */
+    @Query(COMMENT_DTO + "WHERE c.item.id = ?1 AND (c.created < ?2 OR (c.created = ?2 AND c.id < ?3)) " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<CommentDto> findNewestDtosByItemIdBefore(Long itemId, LocalDateTime created, Long id, Pageable page);
+
+    @Query("SELECT count(c) from Comment c WHERE c.item.id = ?1")
+    long countByItemId(Long itemId);
+
+    @Query("SELECT DISTINCT c.item.id from Comment c WHERE c.author.id = ?1")
+    List<Long> findItemIdsByAuthorId(Long authorId);
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.comment;
+
+import java.util.List;
+
+public interface CommentRepositoryCustom {
+
+    List<RankedComment> findNewestByItemOwnerId(Long ownerId, int limit);
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.comment;
+
+import org.hibernate.jpa.QueryHints;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class CommentRepositoryCustomImpl implements CommentRepositoryCustom {
+
+    /**
+     * Newest {@code :limit} comments and the total of every item of the owner; SQL, as JPQL has no window functions.
+     */
+    static final String NEWEST_BY_ITEM_OWNER = "SELECT c.comment_id, c.text, c.created, c.comments_total, "
+            + "i.item_id, i.name AS item_name, a.user_id, a.name AS author_name "
+            + "FROM (SELECT comment_id, text, created, item_id, author_id, "
+            + "ROW_NUMBER() OVER (PARTITION BY item_id ORDER BY created DESC, comment_id DESC) AS newest_rank, "
+            + "COUNT(*) OVER (PARTITION BY item_id) AS comments_total "
+            + "FROM comments WHERE item_id IN (SELECT item_id FROM items WHERE owner_id = :ownerId)) c "
+            + "JOIN items i ON i.item_id = c.item_id JOIN users a ON a.user_id = c.author_id "
+            + "WHERE c.newest_rank <= :limit ORDER BY c.created DESC, c.comment_id DESC";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<RankedComment> findNewestByItemOwnerId(Long ownerId, int limit) {
+        List<Object[]> rows = entityManager.createNativeQuery(NEWEST_BY_ITEM_OWNER)
+                .setParameter("ownerId", ownerId)
+                .setParameter("limit", limit)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultList();
+
+        return rows.stream()
+                .map(row -> new RankedComment(new CommentDtoResponse(((Number) row[0]).longValue(),
+                        (String) row[1],
+                        ((Number) row[4]).longValue(),
+                        (String) row[5],
+                        ((Number) row[6]).longValue(),
+                        (String) row[7],
+                        ((Timestamp) row[2]).toLocalDateTime()),
+                        ((Number) row[3]).longValue()))
+                .collect(Collectors.toList());
+    }
+}
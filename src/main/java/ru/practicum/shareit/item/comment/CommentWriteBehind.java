@@ -0,0 +1,336 @@
+package ru.practicum.shareit.item.comment;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.H2SequenceMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.PostgresSequenceMaxValueIncrementer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.ServiceOverloadedException;
+import ru.practicum.shareit.item.service.ItemViewCache;
+import ru.practicum.shareit.user.model.User;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Optional write-behind for comments: they are queued and inserted in JDBC batches by a background writer.
+ */
+@Slf4j
+@Component
+public class CommentWriteBehind {
+
+    private static final String INSERT = "INSERT INTO comments (comment_id, text, item_id, author_id, created) "
+            + "VALUES (?, ?, ?, ?, ?)";
+    private static final int ID_BLOCK_SIZE = 50;
+    private static final long POLL_MILLIS = 100;
+    private static final long RETRY_MIN_MILLIS = 100;
+    private static final long RETRY_MAX_MILLIS = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemViewCache itemViewCache;
+    private final DataFieldMaxValueIncrementer sequence;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final BlockingQueue<PendingComment> queue;
+    private final Map<Long, List<PendingComment>> pendingByItem = new ConcurrentHashMap<>();
+    private final Counter written;
+    private final Counter rejected;
+    private final Counter failed;
+    private final List<PendingComment> inFlight = new ArrayList<>();
+    // Submissions hold the read lock from the check to the queue, stop takes the write lock to close intake.
+    private final ReadWriteLock intake = new ReentrantReadWriteLock();
+    // Guards the id block; not a monitor, so a virtual thread that reads the next block stays unpinned.
+    private final Lock idLock = new ReentrantLock();
+    private long nextId;
+    private long lastId = -1;
+    private volatile boolean running;
+    private Thread writer;
+
+    public CommentWriteBehind(JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              ItemViewCache itemViewCache,
+                              MeterRegistry meterRegistry,
+                              @Value("${shareit.comments.write-behind.enabled:false}") boolean enabled,
+                              @Value("${shareit.comments.write-behind.queue-capacity:10000}") int queueCapacity,
+                              @Value("${shareit.comments.write-behind.batch-size:100}") int batchSize,
+                              @Value("${shareit.comments.write-behind.linger:50ms}") Duration linger) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.itemViewCache = itemViewCache;
+        this.sequence = enabled ? sequence(jdbcTemplate.getDataSource(), "comments_seq") : null;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.running = enabled;
+        written = meterRegistry.counter("shareit.comments.write-behind", "result", "written");
+        rejected = meterRegistry.counter("shareit.comments.write-behind", "result", "rejected");
+        failed = meterRegistry.counter("shareit.comments.write-behind", "result", "failed");
+        meterRegistry.gauge("shareit.comments.write-behind.queue", queue, BlockingQueue::size);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        writer = new Thread(this::writeLoop, "comment-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public CommentDto submit(Long itemId, User author, String text) {
+        intake.readLock().lock();
+        try {
+            if (!running) {
+                throw new ServiceOverloadedException("Прием отзывов остановлен, повторите попытку позже");
+            }
+
+            PendingComment comment = new PendingComment(allocateId(), text, itemId, author.getId(),
+                    author.getName(), LocalDateTime.now());
+            pendingByItem.compute(itemId, (id, pending) -> {
+                List<PendingComment> comments = pending == null ? new CopyOnWriteArrayList<>() : pending;
+                comments.add(comment);
+                return comments;
+            });
+            if (!queue.offer(comment)) {
+                forget(comment);
+                rejected.increment();
+                throw new ServiceOverloadedException("Слишком много отзывов, повторите попытку позже");
+            }
+
+            return comment.toDto();
+        } finally {
+            intake.readLock().unlock();
+        }
+    }
+
+    /**
+     * Comments of the author on the item that are accepted but not written yet.
+     */
+    public List<CommentDto> findPending(Long itemId, Long authorId) {
+        List<PendingComment> pending = pendingByItem.get(itemId);
+        if (pending == null) {
+            return List.of();
+        }
+
+        return pending.stream()
+                .filter(comment -> comment.getAuthorId().equals(authorId))
+                .map(PendingComment::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // Once the write lock is taken no submission is between its check and the queue, so the drain sees them all.
+        intake.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            intake.writeLock().unlock();
+        }
+        if (writer != null) {
+            writer.join();
+        }
+
+        // What the writer could not write before it stopped goes first, then what is still in the queue.
+        List<PendingComment> rest = new ArrayList<>(inFlight);
+        inFlight.clear();
+        queue.drainTo(rest);
+        for (int from = 0; from < rest.size(); from += batchSize) {
+            List<PendingComment> chunk = new ArrayList<>(rest.subList(from, Math.min(from + batchSize, rest.size())));
+            try {
+                write(chunk);
+            } catch (RuntimeException e) {
+                log.error("При остановке не записано отзывов: {}: {}", chunk.size(), e.getMessage());
+                failed.increment(chunk.size());
+                chunk.forEach(this::forget);
+            }
+        }
+        if (!rest.isEmpty()) {
+            log.info("При остановке обработано отзывов из очереди: {}.", rest.size());
+        }
+    }
+
+    private void writeLoop() {
+        int failures = 0;
+        while (running) {
+            try {
+                if (inFlight.isEmpty()) {
+                    collect(inFlight);
+                }
+                if (!inFlight.isEmpty()) {
+                    write(inFlight);
+                }
+                failures = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                long pause = Math.min(RETRY_MAX_MILLIS, RETRY_MIN_MILLIS << Math.min(failures++, 6));
+                log.warn("Пакет из {} отзывов не записан, повтор через {} мс: {}", inFlight.size(), pause,
+                        e.getMessage());
+                try {
+                    Thread.sleep(pause);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void collect(List<PendingComment> batch) throws InterruptedException {
+        PendingComment first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+
+        batch.add(first);
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            PendingComment next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    /**
+     * Writes the batch, dropping rows that break a constraint and keeping the rest on any other failure.
+     */
+    private void write(List<PendingComment> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT, batch, batch.size(),
+                    (statement, comment) -> {
+                        statement.setLong(1, comment.getId());
+                        statement.setString(2, comment.getText());
+                        statement.setLong(3, comment.getItemId());
+                        statement.setLong(4, comment.getAuthorId());
+                        statement.setTimestamp(5, Timestamp.valueOf(comment.getCreated()));
+                    }));
+            written.increment(batch.size());
+            batch.forEach(this::done);
+            batch.clear();
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Пакет из {} отзывов не записан, записываем по одному: {}", batch.size(), e.getMessage());
+            for (Iterator<PendingComment> comments = batch.iterator(); comments.hasNext(); ) {
+                PendingComment comment = comments.next();
+                writeOne(comment);
+                done(comment);
+                comments.remove();
+            }
+        }
+    }
+
+    private void writeOne(PendingComment comment) {
+        try {
+            jdbcTemplate.update(INSERT, comment.getId(), comment.getText(), comment.getItemId(),
+                    comment.getAuthorId(), Timestamp.valueOf(comment.getCreated()));
+            written.increment();
+        } catch (DataIntegrityViolationException e) {
+            log.error("Отзыв {} к вещи {} отброшен: {}", comment.getId(), comment.getItemId(), e.getMessage());
+            failed.increment();
+        }
+    }
+
+    private void done(PendingComment comment) {
+        // The item view is evicted before the pending copy goes, so a reader never misses a written comment.
+        itemViewCache.evict(comment.getItemId());
+        forget(comment);
+    }
+
+    private void forget(PendingComment comment) {
+        pendingByItem.computeIfPresent(comment.getItemId(), (id, pending) -> {
+            pending.remove(comment);
+            return pending.isEmpty() ? null : pending;
+        });
+    }
+
+    private long allocateId() {
+        idLock.lock();
+        try {
+            if (nextId > lastId) {
+                lastId = sequence.nextLongValue();
+                nextId = Math.max(1, lastId - ID_BLOCK_SIZE + 1);
+            }
+
+            return nextId++;
+        } finally {
+            idLock.unlock();
+        }
+    }
+
+    private static DataFieldMaxValueIncrementer sequence(DataSource dataSource, String name) {
+        String database;
+        try {
+            database = JdbcUtils.commonDatabaseName(
+                    JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Не удалось определить базу данных для последовательности " + name, e);
+        }
+
+        if ("PostgreSQL".equals(database)) {
+            return new PostgresSequenceMaxValueIncrementer(dataSource, name);
+        }
+        if ("H2".equals(database)) {
+            return new H2SequenceMaxValueIncrementer(dataSource, name);
+        }
+        throw new IllegalStateException("Последовательность " + name + " в базе " + database + " не поддерживается");
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class PendingComment {
+        private final Long id;
+        private final String text;
+        private final Long itemId;
+        private final Long authorId;
+        private final String authorName;
+        private final LocalDateTime created;
+
+        private CommentDto toDto() {
+            return new CommentDto(id, text, authorName, created);
+        }
+    }
+}
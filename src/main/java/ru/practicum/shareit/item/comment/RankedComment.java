@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.comment;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * One of the newest comments of an item together with the number of comments the item has in total.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RankedComment {
+
+    private final CommentDtoResponse comment;
+
+    private final long total;
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.comment;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * Comment reads over R2DBC, the counterpart of {@link CommentRepository#findNewestByItemOwnerId}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveCommentRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public Flux<RankedComment> findNewestByItemOwnerId(Long ownerId, int limit) {
+        return databaseClient.sql(CommentRepositoryCustomImpl.NEWEST_BY_ITEM_OWNER)
+                .bind("ownerId", ownerId)
+                .bind("limit", limit)
+                .map(row -> new RankedComment(new CommentDtoResponse(row.get("comment_id", Long.class),
+                        row.get("text", String.class),
+                        row.get("item_id", Long.class),
+                        row.get("item_name", String.class),
+                        row.get("user_id", Long.class),
+                        row.get("author_name", String.class),
+                        row.get("created", LocalDateTime.class)),
+                        row.get("comments_total", Long.class)))
+                .all();
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -14,14 +15,19 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.item.comment.CommentCursor;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.comment.CreateCommentDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.CreateItemsResultDto;
 
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.CursorCodec;
+import ru.practicum.shareit.util.ETags;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -33,20 +39,35 @@ import java.util.List;
 public class ItemController {
     private final ItemService itemService;
     private static final String HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     @GetMapping("/{itemId}")
-    public ItemDto getById(@PathVariable Long itemId,
-                           @RequestHeader(name = HEADER) Long userId) {
+    public ResponseEntity<ItemDto> getById(@PathVariable Long itemId,
+                                           @RequestHeader(name = HEADER) Long userId,
+                                           WebRequest request) {
         log.info("Получен запрос GET /items/{}.", itemId);
 
-        return itemService.getById(itemId, userId);
+        return ETags.respond(request, () -> itemService.getETag(itemId, userId),
+                () -> itemService.getById(itemId, userId));
     }
 
     @GetMapping("/search")
-    public List<ItemDto> search(@RequestParam String text) {
-        log.info("Получен запрос GET /items/search.");
-
-        return itemService.search(text);
+    public ResponseEntity<List<ItemDto>> search(@RequestParam String text,
+                                                @RequestParam(defaultValue = "0") int from,
+                                                @RequestParam(required = false) Integer size,
+                                                @RequestParam(required = false) String cursor) {
+        log.info("Получен запрос GET /items/search?from={}&size={}.", from, size);
+
+        // Without size the whole result is returned, as before paging was added.
+        int pageSize = size == null ? Integer.MAX_VALUE : size;
+        List<ItemDto> items = itemService.search(text, CursorCodec.decode(cursor), from, pageSize);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (size != null && items.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, CursorCodec.encode(items.get(items.size() - 1).getId()));
+        }
+
+        return response.body(items);
     }
 
     @GetMapping
@@ -65,6 +86,15 @@ public class ItemController {
         return itemService.create(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public CreateItemsResultDto createAll(@RequestHeader(name = HEADER) Long userId,
+                                          @RequestBody List<CreateItemDto> itemDtos) {
+        log.info("Получен запрос POST /items/batch, вещей: {}.", itemDtos.size());
+
+        return itemService.createAll(userId, itemDtos);
+    }
+
     @PostMapping("/{id}/comment")
     public CommentDto createComment(@PathVariable Long id,
                                     @RequestHeader(name = HEADER) Long userId,
@@ -74,6 +104,22 @@ public class ItemController {
         return itemService.createComment(id, userId, commentDto);
     }
 
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable Long itemId,
+                                                        @RequestParam(defaultValue = "20") int size,
+                                                        @RequestParam(required = false) String cursor) {
+        log.info("Получен запрос GET /items/{}/comments?size={}.", itemId, size);
+
+        List<CommentDto> comments = itemService.getComments(itemId, cursor, size);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (comments.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, CommentCursor.after(comments.get(comments.size() - 1)).encode());
+        }
+
+        return response.body(comments);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(@PathVariable Long itemId,
                           @RequestHeader(name = HEADER) Long userId,
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.service.ReactiveItemService;
+import ru.practicum.shareit.util.CursorCodec;
+
+/**
+ * Item listings streamed as NDJSON, chosen with {@code Accept: application/x-ndjson} on the same paths as
+ * {@link ItemController}. A stream cannot carry the next-cursor header; the client continues from the last id.
+ * This is streaming, not non-blocking: see {@link ru.practicum.shareit.booking.controller.ReactiveBookingController}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+@RequestMapping(path = "/items", produces = "application/x-ndjson")
+public class ReactiveItemController {
+
+    private static final String HEADER = "X-Sharer-User-Id";
+
+    private final ReactiveItemService reactiveItemService;
+
+    @GetMapping("/search")
+    public Flux<ItemDto> search(@RequestParam String text,
+                                @RequestParam(defaultValue = "0") int from,
+                                @RequestParam(defaultValue = "20") int size,
+                                @RequestParam(required = false) String cursor) {
+        log.info("Получен потоковый запрос GET /items/search?from={}&size={}.", from, size);
+
+        return reactiveItemService.search(text, CursorCodec.decode(cursor), from, size);
+    }
+
+    @GetMapping
+    public Flux<ItemDtoResponse> getByUserId(@RequestHeader(name = HEADER) Long userId) {
+        log.info("Получен потоковый запрос GET /items.");
+
+        return reactiveItemService.getByUserId(userId);
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class CreateItemsResultDto {
+
+    private List<Long> createdIds;
+
+    private List<RowError> errors;
+
+    @Data
+    public static class RowError {
+        private final int index;
+        private final String error;
+    }
+}
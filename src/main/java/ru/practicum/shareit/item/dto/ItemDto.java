@@ -14,7 +14,7 @@ import java.util.List;
 @NoArgsConstructor
 @Getter
 @Setter
-@Builder
+@Builder(toBuilder = true)
 public class ItemDto {
 
     private Long id;
@@ -30,4 +30,6 @@ public class ItemDto {
     private BookingDtoShort nextBooking;
 
     private List<CommentDto> comments;
+
+    private Long commentsCount;
 }
\ No newline at end of file
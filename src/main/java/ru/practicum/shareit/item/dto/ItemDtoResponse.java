@@ -30,4 +30,10 @@ public class ItemDtoResponse {
     private BookingDtoShortResponse nextBooking;
 
     private List<CommentDtoResponse> comments;
+
+    private Long commentsCount;
+
+    public ItemDtoResponse(Long id, String name, String description, Boolean available) {
+        this(id, name, description, available, null, null, null, null);
+    }
 }
\ No newline at end of file
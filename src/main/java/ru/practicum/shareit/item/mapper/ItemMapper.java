@@ -5,6 +5,7 @@ import lombok.NoArgsConstructor;
 import ru.practicum.shareit.item.dto.CreateItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.model.IndexedItem;
 import ru.practicum.shareit.item.model.Item;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
@@ -18,6 +19,7 @@ public class ItemMapper {
                 null,
                 null,
                 null,
+                null,
                 null
         );
 
@@ -31,10 +33,20 @@ public class ItemMapper {
                 item.getAvailable(),
                 item.getLastBooking(),
                 item.getNextBooking(),
-                item.getComments()
+                item.getComments(),
+                null
         );
     }
 
+    public static ItemDto toDto(IndexedItem item) {
+        return ItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(true)
+                .build();
+    }
+
     public static ItemDtoResponse toDtoResponse(Item item) {
         return ItemDtoResponse.builder()
                 .id(item.getId())
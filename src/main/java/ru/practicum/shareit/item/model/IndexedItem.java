@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.Value;
+
+@Value
+public class IndexedItem {
+
+    private Long id;
+
+    private String name;
+
+    private String description;
+}
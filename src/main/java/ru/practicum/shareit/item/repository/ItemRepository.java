@@ -1,18 +1,34 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.model.IndexedItem;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findAllByOwner(User owner);
+    /**
+     * Served from Hibernate's query cache, which drops the result on any write to items.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemDtoResponse(i.id, i.name, i.description, i.available) " +
+            "from Item i WHERE i.owner.id = ?1")
+    List<ItemDtoResponse> findDtosByOwnerId(Long ownerId);
 
     @Query("SELECT i from Item i " +
-            "WHERE upper(i.name) like upper(concat('%', ?1, '%')) " +
-            "OR upper(i.description) like upper(concat('%', ?1, '%')) " +
-            "AND i.available = true ")
-    List<Item> search(String text);
-}
\ No newline at end of file
+            "WHERE (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            "OR upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            "AND i.available = true " +
+            "AND i.id > ?2")
+    List<Item> search(String text, Long afterId, Pageable pageable);
+
+    @Query("SELECT new ru.practicum.shareit.item.model.IndexedItem(i.id, i.name, i.description) from Item i " +
+            "WHERE i.available = true AND i.id > ?1 " +
+            "ORDER BY i.id")
+    List<IndexedItem> findAvailableForIndex(Long afterId, Pageable pageable);
+}
@@ -0,0 +1,261 @@
+package ru.practicum.shareit.item.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.IndexedItem;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over available items: n-gram of one to three letters -> ids of items with a
+ * word of the name or description that contains it. A query word is looked up by itself when it is that short and
+ * by its n-grams otherwise, so no lookup scans the vocabulary. Postings are kept in id order, so a page is read
+ * from the cursor on and the walk stops once it is full. Candidates are checked against the full text, so the
+ * result is the same as
+ * {@link ItemRepository#search(String, Long, org.springframework.data.domain.Pageable)}. Items indexed or removed
+ * while the index is being built are not overwritten by the rows the build loaded before the change.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final int GRAM = 3;
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final NavigableMap<Long, IndexedItem> documents = new TreeMap<>();
+    private final Map<String, NavigableSet<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Ids indexed or removed before the build is over; null once it is.
+    private Set<Long> changedDuringBuild = new HashSet<>();
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.search.index.enabled:true}") boolean enabled) {
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (changedDuringBuild == null) {
+                changedDuringBuild = new HashSet<>();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long lastId = 0;
+        int count = 0;
+        List<IndexedItem> batch;
+        do {
+            batch = itemRepository.findAvailableForIndex(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            addLoaded(batch);
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+                count += batch.size();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+
+        lock.writeLock().lock();
+        try {
+            changedDuringBuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("Поисковый индекс построен, вещей в индексе: {}.", count);
+    }
+
+    public void index(Item item) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            remove(item.getId());
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                add(new IndexedItem(item.getId(), item.getName(), item.getDescription()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            if (changedDuringBuild != null) {
+                changedDuringBuild.add(itemId);
+            }
+            IndexedItem document = documents.remove(itemId);
+            if (document == null) {
+                return;
+            }
+            for (String gram : grams(terms(document))) {
+                Set<Long> ids = postings.get(gram);
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<IndexedItem> search(String text, long afterId, long from, int size) {
+        String query = text.toLowerCase();
+        Set<String> queryTerms = tokenize(query);
+        long limit = from + size;
+        List<IndexedItem> page = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            List<NavigableSet<Long>> lookups = queryTerms.isEmpty() ? List.of(documents.navigableKeySet())
+                    : lookups(queryTerms);
+            if (lookups.isEmpty()) {
+                return page;
+            }
+
+            long found = 0;
+            Iterator<Long> ids = lookups.get(0).tailSet(afterId, false).iterator();
+            while (ids.hasNext() && found < limit) {
+                Long id = ids.next();
+                IndexedItem document = documents.get(id);
+                if (inAll(lookups, id) && matches(document, query) && found++ >= from) {
+                    page.add(document);
+                }
+            }
+
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addLoaded(List<IndexedItem> batch) {
+        lock.writeLock().lock();
+        try {
+            batch.stream()
+                    .filter(document -> !changedDuringBuild.contains(document.getId()))
+                    .forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(IndexedItem document) {
+        lock.writeLock().lock();
+        try {
+            documents.put(document.getId(), document);
+            for (String gram : grams(terms(document))) {
+                postings.computeIfAbsent(gram, g -> new TreeSet<>()).add(document.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Postings of every gram of the query, smallest first; empty when one of them has no items.
+    private List<NavigableSet<Long>> lookups(Set<String> queryTerms) {
+        List<NavigableSet<Long>> lookups = new ArrayList<>();
+        for (String queryTerm : queryTerms) {
+            Set<String> grams = queryTerm.length() <= GRAM ? Set.of(queryTerm) : grams(Set.of(queryTerm), GRAM);
+            for (String gram : grams) {
+                NavigableSet<Long> ids = postings.get(gram);
+                if (ids == null) {
+                    return List.of();
+                }
+                lookups.add(ids);
+            }
+        }
+        lookups.sort(Comparator.comparingInt(Set::size));
+
+        return lookups;
+    }
+
+    private static boolean inAll(List<NavigableSet<Long>> lookups, Long id) {
+        for (int i = 1; i < lookups.size(); i++) {
+            if (!lookups.get(i).contains(id)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean matches(IndexedItem document, String query) {
+        return document.getName().toLowerCase().contains(query)
+                || document.getDescription().toLowerCase().contains(query);
+    }
+
+    private static Set<String> terms(IndexedItem document) {
+        Set<String> terms = tokenize(document.getName().toLowerCase());
+        terms.addAll(tokenize(document.getDescription().toLowerCase()));
+
+        return terms;
+    }
+
+    private static Set<String> grams(Set<String> terms) {
+        Set<String> grams = new HashSet<>();
+        for (int length = 1; length <= GRAM; length++) {
+            grams.addAll(grams(terms, length));
+        }
+
+        return grams;
+    }
+
+    private static Set<String> grams(Set<String> terms, int length) {
+        Set<String> grams = new HashSet<>();
+        for (String term : terms) {
+            for (int start = 0; start + length <= term.length(); start++) {
+                grams.add(term.substring(start, start + length));
+            }
+        }
+
+        return grams;
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> tokens = new HashSet<>();
+        for (String token : TOKEN_SEPARATOR.split(text)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+
+        return tokens;
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.item.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.model.IndexedItem;
+
+/**
+ * Item reads over R2DBC, the counterparts of {@link ItemRepository#findDtosByOwnerId} and
+ * {@link ItemRepository#search}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveItemRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public Flux<ItemDtoResponse> findDtosByOwnerId(Long ownerId) {
+        return databaseClient.sql("SELECT item_id, name, description, is_available FROM items "
+                        + "WHERE owner_id = :ownerId ORDER BY item_id")
+                .bind("ownerId", ownerId)
+                .map(row -> new ItemDtoResponse(row.get("item_id", Long.class),
+                        row.get("name", String.class),
+                        row.get("description", String.class),
+                        row.get("is_available", Boolean.class)))
+                .all();
+    }
+
+    public Flux<IndexedItem> search(String text, Long afterId, long offset, int limit) {
+        return databaseClient.sql("SELECT item_id, name, description FROM items "
+                        + "WHERE (upper(name) LIKE upper(concat('%', :text, '%')) "
+                        + "OR upper(description) LIKE upper(concat('%', :text, '%'))) "
+                        + "AND is_available = true AND item_id > :afterId "
+                        + "ORDER BY item_id LIMIT :limit OFFSET :offset")
+                .bind("text", text)
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(row -> new IndexedItem(row.get("item_id", Long.class),
+                        row.get("name", String.class),
+                        row.get("description", String.class)))
+                .all();
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.service;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.comment.CreateCommentDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.CreateItemsResultDto;
 
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
@@ -14,15 +15,24 @@ public interface ItemService {
 
     List<ItemDtoResponse> getByUserId(Long userId);
 
-    List<ItemDto> search(String text);
+    List<ItemDto> search(String text, Long afterId, int from, int size);
 
     ItemDto getById(Long itemId, Long userId);
 
+    /**
+     * ETag of {@link #getById} while its view is cached, otherwise {@code null}.
+     */
+    String getETag(Long itemId, Long userId);
+
     ItemDto create(Long userId, CreateItemDto itemDto);
 
+    CreateItemsResultDto createAll(Long userId, List<CreateItemDto> itemDtos);
+
     ItemDto update(Long itemId, Long userId, UpdateItemDto itemDto);
 
     ItemDto delete(Long itemId);
 
     CommentDto createComment(Long itemId, Long userId, CreateCommentDto commentDto);
+
+    List<CommentDto> getComments(Long itemId, String cursor, int size);
 }
\ No newline at end of file
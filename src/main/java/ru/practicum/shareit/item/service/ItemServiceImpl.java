@@ -1,13 +1,19 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDtoShortResponse;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingIntervalIndex;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.CommentCursor;
 import ru.practicum.shareit.item.comment.CommentDtoResponse;
 import ru.practicum.shareit.item.comment.CreateCommentDto;
 import ru.practicum.shareit.booking.model.Booking;
@@ -16,7 +22,10 @@ import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.comment.CommentMapper;
 import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.CommentWriteBehind;
+import ru.practicum.shareit.item.comment.RankedComment;
 import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.CreateItemsResultDto;
 
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
@@ -24,13 +33,22 @@ import ru.practicum.shareit.item.dto.UpdateItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemSearchIndex;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserIdentityCache;
+import ru.practicum.shareit.util.ETags;
+import ru.practicum.shareit.util.FromSizeRequest;
+import ru.practicum.shareit.util.TransactionUtils;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -40,53 +58,89 @@ public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
 
-    private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
 
     private final BookingRepository bookingRepository;
 
     private final CommentRepository commentRepository;
 
-    @Transactional(readOnly = true)
-    public List<ItemDtoResponse> getByUserId(Long userId) {
+    private final ItemSearchIndex itemSearchIndex;
 
-        List<ItemDtoResponse> itemsDtoResponse = itemRepository.findAllByOwner(userRepository.findById(userId).orElseThrow(
-                        () -> new ObjectNotFoundException("Пользователя нет: " + userId))).stream()
-                .map(ItemMapper::toDtoResponse)
-                .collect(Collectors.toList());
+    private final BookingIntervalIndex bookingIntervalIndex;
 
-        List<Long> idItems = itemsDtoResponse.stream().map(ItemDtoResponse::getId).collect(Collectors.toList());
+    private final ItemViewCache itemViewCache;
 
-        Map<Long, BookingDtoShortResponse> lastBookings = bookingRepository.findFirstByItemIdInAndStartLessThanEqualAndStatus(
-                        idItems, LocalDateTime.now(), Status.APPROVED, Sort.by(Sort.Direction.DESC, "start"))
-                .stream()
-                .map(BookingMapper::toDtoShortResponse)
-                .collect(Collectors.toMap(BookingDtoShortResponse::getItemId, Function.identity()));
-        itemsDtoResponse.forEach(i -> i.setLastBooking(lastBookings.get(i.getId())));
+    private final CommentWriteBehind commentWriteBehind;
 
-        Map<Long, BookingDtoShortResponse> nextBookings = bookingRepository.findFirstByItemIdInAndStartAfterAndStatus(
-                        idItems, LocalDateTime.now(), Status.APPROVED, Sort.by(Sort.Direction.ASC, "start"))
-                .stream()
-                .map(BookingMapper::toDtoShortResponse)
-                .collect(Collectors.toMap(BookingDtoShortResponse::getItemId, Function.identity()));
-        itemsDtoResponse.forEach(i -> i.setNextBooking(nextBookings.get(i.getId())));
+    private final Validator validator;
 
-        Map<Long, List<CommentDtoResponse>> comments = commentRepository.findByItemIdIn(
-                        idItems, Sort.by(Sort.Direction.DESC, "created"))
-                .stream()
-                .map(CommentMapper::toDtoResponse)
+    private final MeterRegistry meterRegistry;
+
+    @Value("${shareit.comments.embedded-limit:10}")
+    private int commentsLimit;
+
+    @Value("${shareit.items.batch.max-size:1000}")
+    private int batchMaxSize;
+
+    @Transactional(readOnly = true)
+    public List<ItemDtoResponse> getByUserId(Long userId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        userIdentityCache.get(userId);
+        List<ItemDtoResponse> itemsDtoResponse = itemRepository.findDtosByOwnerId(userId);
+
+        if (itemsDtoResponse.isEmpty()) {
+            sample.stop(ownerListTimer("db"));
+            return itemsDtoResponse;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingDtoShortResponse> lastBookings = bookingRepository.findLastByItemOwnerId(
+                userId, now, Status.APPROVED);
+        List<BookingDtoShortResponse> nextBookings = bookingRepository.findNextByItemOwnerId(
+                userId, now, Status.APPROVED);
+        List<RankedComment> newestComments = commentRepository.findNewestByItemOwnerId(userId, commentsLimit);
+        sample.stop(ownerListTimer("db"));
+
+        sample = Timer.start(meterRegistry);
+        Map<Long, BookingDtoShortResponse> lastByItem = lastBookings.stream()
+                .collect(Collectors.toMap(BookingDtoShortResponse::getItemId, Function.identity(), (b1, b2) -> b1));
+        Map<Long, BookingDtoShortResponse> nextByItem = nextBookings.stream()
+                .collect(Collectors.toMap(BookingDtoShortResponse::getItemId, Function.identity(), (b1, b2) -> b1));
+        Map<Long, List<CommentDtoResponse>> comments = newestComments.stream()
+                .map(RankedComment::getComment)
                 .collect(Collectors.groupingBy(c -> c.getItem().getId()));
-        itemsDtoResponse.forEach(i -> i.setComments(comments.get(i.getId())));
+        Map<Long, Long> commentsCounts = newestComments.stream()
+                .collect(Collectors.toMap(c -> c.getComment().getItem().getId(), RankedComment::getTotal,
+                        (c1, c2) -> c1));
+        itemsDtoResponse.forEach(i -> {
+            i.setLastBooking(lastByItem.get(i.getId()));
+            i.setNextBooking(nextByItem.get(i.getId()));
+            i.setComments(comments.get(i.getId()));
+            i.setCommentsCount(commentsCounts.getOrDefault(i.getId(), 0L));
+        });
+        sample.stop(ownerListTimer("mapping"));
 
         return itemsDtoResponse;
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<ItemDto> search(String text) {
+    public List<ItemDto> search(String text, Long afterId, int from, int size) {
+        FromSizeRequest page = FromSizeRequest.of(from, size, Sort.by(Sort.Direction.ASC, "id"));
+
         if (text.isBlank()) {
             return Collections.emptyList();
         }
-        return itemRepository.search(text.toLowerCase())
+
+        if (itemSearchIndex.isReady()) {
+            return itemSearchIndex.search(text, afterId, page.getOffset(), page.getPageSize())
+                    .stream()
+                    .map(ItemMapper::toDto)
+                    .collect(Collectors.toList());
+        }
+
+        return itemRepository.search(text.toLowerCase(), afterId, page)
                 .stream()
                 .map(ItemMapper::toDto)
                 .collect(Collectors.toList());
@@ -95,6 +149,12 @@ public class ItemServiceImpl implements ItemService {
     @Transactional(readOnly = true)
     @Override
     public ItemDto getById(Long itemId, Long userId) {
+        ItemDto cached = itemViewCache.get(itemId, userId);
+        if (cached != null) {
+            return withPendingComments(cached, itemId, userId);
+        }
+
+        long generation = itemViewCache.generation(itemId);
         Item item = itemRepository.findById(itemId).orElseThrow(
                 () -> new ObjectNotFoundException("Вещи нет: " + itemId));
 
@@ -104,9 +164,26 @@ public class ItemServiceImpl implements ItemService {
             setNextAndLastBooking(bookings, item);
         }
 
-        addComments(item);
+        long commentsCount = addComments(item);
 
-        return ItemMapper.toDto(item);
+        ItemDto view = ItemMapper.toDto(item);
+        view.setCommentsCount(commentsCount);
+        itemViewCache.put(itemId, generation, item.getOwner().getId(), userId, view);
+
+        return withPendingComments(view, itemId, userId);
+    }
+
+    @Override
+    public String getETag(Long itemId, Long userId) {
+        String eTag = itemViewCache.getETag(itemId, userId);
+        if (eTag == null || !commentWriteBehind.isEnabled()) {
+            return eTag;
+        }
+
+        List<CommentDto> pending = commentWriteBehind.findPending(itemId, userId);
+
+        return pending.isEmpty() ? eTag : ETags.of(eTag, pending.stream().map(CommentDto::getId)
+                .collect(Collectors.toList()));
     }
 
     @Transactional
@@ -114,24 +191,62 @@ public class ItemServiceImpl implements ItemService {
     public ItemDto create(Long userId, CreateItemDto itemDto) {
         Item item = ItemMapper.createItemDtoToItem(itemDto);
 
-        item.setOwner(userRepository.findById(userId).orElseThrow(
-                () -> new ObjectNotFoundException("Пользователя нет: " + userId)));
+        item.setOwner(userIdentityCache.get(userId));
 
         itemRepository.save(item);
+        TransactionUtils.afterCommit(() -> itemSearchIndex.index(item));
 
         return ItemMapper.toDto(item);
     }
 
+    @Transactional
+    @Override
+    public CreateItemsResultDto createAll(Long userId, List<CreateItemDto> itemDtos) {
+        if (itemDtos.size() > batchMaxSize) {
+            throw new ValidationException("В пакете больше " + batchMaxSize + " вещей: " + itemDtos.size());
+        }
+        for (int i = 0; i < itemDtos.size(); i++) {
+            if (itemDtos.get(i) == null) {
+                throw new ValidationException("Пустой элемент в пакете на позиции " + i);
+            }
+        }
+        User owner = userIdentityCache.get(userId);
+
+        List<Item> items = new ArrayList<>();
+        List<CreateItemsResultDto.RowError> errors = new ArrayList<>();
+        for (int i = 0; i < itemDtos.size(); i++) {
+            Set<ConstraintViolation<CreateItemDto>> violations = validator.validate(itemDtos.get(i));
+            if (!violations.isEmpty()) {
+                errors.add(new CreateItemsResultDto.RowError(i, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "))));
+                continue;
+            }
+
+            Item item = ItemMapper.createItemDtoToItem(itemDtos.get(i));
+            item.setOwner(owner);
+            items.add(item);
+        }
+
+        itemRepository.saveAll(items);
+        TransactionUtils.afterCommit(() -> items.forEach(itemSearchIndex::index));
+
+        return CreateItemsResultDto.builder()
+                .createdIds(items.stream().map(Item::getId).collect(Collectors.toList()))
+                .errors(errors)
+                .build();
+    }
+
     @Transactional
     @Override
     public ItemDto update(Long itemId, Long userId, UpdateItemDto itemDto) {
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new ObjectNotFoundException("Пользователя нет: " + userId));
+        userIdentityCache.get(userId);
 
         Item item = itemRepository.findById(itemId).orElseThrow(
                 () -> new ObjectNotFoundException("Вещи нет: " + itemId));
 
-        if (!user.equals(item.getOwner())) {
+        if (!item.getOwner().getId().equals(userId)) {
             throw new ObjectNotFoundException("Пользователь не является владельцем вещи!");
         }
 
@@ -147,6 +262,11 @@ public class ItemServiceImpl implements ItemService {
             item.setAvailable(itemDto.getAvailable());
         }
 
+        TransactionUtils.afterCommit(() -> {
+            itemSearchIndex.index(item);
+            itemViewCache.evict(itemId);
+        });
+
         return ItemMapper.toDto(item);
     }
 
@@ -156,6 +276,11 @@ public class ItemServiceImpl implements ItemService {
         Item item = itemRepository.findById(itemId).orElseThrow(
                 () -> new ObjectNotFoundException("Вещи нет: " + itemId));
         itemRepository.deleteById(itemId);
+        TransactionUtils.afterCommit(() -> {
+            itemSearchIndex.remove(itemId);
+            bookingIntervalIndex.evict(itemId);
+            itemViewCache.evict(itemId);
+        });
 
         return ItemMapper.toDto(item);
     }
@@ -163,20 +288,47 @@ public class ItemServiceImpl implements ItemService {
     @Transactional
     @Override
     public CommentDto createComment(Long itemId, Long userId, CreateCommentDto commentDto) {
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new ObjectNotFoundException("Пользователя нет: " + userId));
+        User user = userIdentityCache.get(userId);
+
+        if (commentWriteBehind.isEnabled()) {
+            if (!itemRepository.existsById(itemId)) {
+                throw new ObjectNotFoundException("Вещи нет: " + itemId);
+            }
+            throwIfNeverBooked(itemId, userId);
+
+            return commentWriteBehind.submit(itemId, user, commentDto.getText());
+        }
+
         Item item = itemRepository.findById(itemId).orElseThrow(
                 () -> new ObjectNotFoundException("Вещи нет: " + itemId));
+        throwIfNeverBooked(itemId, userId);
+
+        Comment comment = CommentMapper.toComment(commentDto);
+        comment.setItem(item);
+        comment.setAuthor(user);
+        comment.setCreated(LocalDateTime.now());
+        TransactionUtils.afterCommit(() -> itemViewCache.evict(itemId));
+
+        return CommentMapper.toDto(commentRepository.save(comment));
+    }
 
-        if (!bookingRepository.findAllByItemIdAndBookerIdAndEndBefore(itemId, userId, LocalDateTime.now())
-                .isEmpty()) {
-            Comment comment = CommentMapper.toComment(commentDto);
-            comment.setItem(item);
-            comment.setAuthor(user);
-            comment.setCreated(LocalDateTime.now());
+    @Transactional(readOnly = true)
+    @Override
+    public List<CommentDto> getComments(Long itemId, String cursor, int size) {
+        FromSizeRequest page = FromSizeRequest.of(0, size, Sort.unsorted());
+        CommentCursor after = CommentCursor.decode(cursor);
+
+        if (!itemRepository.existsById(itemId)) {
+            throw new ObjectNotFoundException("Вещи нет: " + itemId);
+        }
 
-            return CommentMapper.toDto(commentRepository.save(comment));
-        } else {
+        return after == null
+                ? commentRepository.findNewestDtosByItemId(itemId, page)
+                : commentRepository.findNewestDtosByItemIdBefore(itemId, after.getCreated(), after.getId(), page);
+    }
+
+    private void throwIfNeverBooked(Long itemId, Long userId) {
+        if (!bookingRepository.existsByItemIdAndBookerIdAndEndBefore(itemId, userId, LocalDateTime.now())) {
             throw new UnavailableException("Невозможно оставить комментарий");
         }
     }
@@ -205,12 +357,45 @@ public class ItemServiceImpl implements ItemService {
         item.setLastBooking(lastBooking != null ? BookingMapper.toDtoShort(lastBooking) : null);
     }
 
-    private void addComments(Item item) {
-        item.setComments(
-                commentRepository.findByItemId(item.getId())
-                        .stream()
-                        .map(CommentMapper::toDto)
-                        .collect(Collectors.toList())
-        );
+    /**
+     * Adds the user's queued comments to a copy of the view, which may be shared through the cache.
+     */
+    private ItemDto withPendingComments(ItemDto view, Long itemId, Long userId) {
+        List<CommentDto> pending = commentWriteBehind.isEnabled()
+                ? commentWriteBehind.findPending(itemId, userId)
+                : List.of();
+        if (pending.isEmpty()) {
+            return view;
+        }
+
+        Set<Long> shown = view.getComments().stream().map(CommentDto::getId).collect(Collectors.toSet());
+        List<CommentDto> comments = pending.stream()
+                .filter(comment -> !shown.contains(comment.getId()))
+                .sorted(Comparator.comparing(CommentDto::getCreated).reversed())
+                .collect(Collectors.toList());
+        long queued = comments.size();
+        comments.addAll(view.getComments());
+
+        return view.toBuilder()
+                .comments(comments.subList(0, Math.min(comments.size(), commentsLimit)))
+                .commentsCount(view.getCommentsCount() + queued)
+                .build();
+    }
+
+    /**
+     * Embeds the newest comments only; the total is counted separately when there may be more of them.
+     */
+    private long addComments(Item item) {
+        List<CommentDto> comments = commentRepository.findNewestDtosByItemId(item.getId(),
+                PageRequest.of(0, commentsLimit));
+        item.setComments(comments);
+
+        return comments.size() < commentsLimit ? comments.size() : commentRepository.countByItemId(item.getId());
+    }
+
+    private Timer ownerListTimer(String phase) {
+        return Timer.builder("shareit.items.owner.list")
+                .tag("phase", phase)
+                .register(meterRegistry);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,172 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.util.ETags;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded cache of assembled {@link ItemDto} views with their ETags. The owner sees last/next bookings and
+ * everyone else does not, so each item keeps two variants that expire on their own and are evicted together.
+ * A view is stored only if no eviction of its item happened since the caller took {@link #generation} before
+ * loading it, so a view loaded before a change never outlives the change's eviction.
+ */
+@Component
+public class ItemViewCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<Long, ItemViews> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final long ttlNanos;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final ObjectWriter viewWriter;
+
+    public ItemViewCache(@Value("${shareit.cache.item-views.max-size:10000}") long maxSize,
+                         @Value("${shareit.cache.item-views.ttl:30s}") Duration ttl,
+                         MeterRegistry meterRegistry,
+                         ObjectMapper objectMapper) {
+        ttlNanos = ttl.toNanos();
+        viewWriter = objectMapper.writerFor(ItemDto.class);
+        hits = meterRegistry.counter("shareit.cache.item-views.gets", "result", "hit");
+        misses = meterRegistry.counter("shareit.cache.item-views.gets", "result", "miss");
+        evictions = meterRegistry.counter("shareit.cache.item-views.evictions");
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .removalListener((Long itemId, ItemViews views, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) {
+                        evictions.increment();
+                    }
+                })
+                .build();
+        meterRegistry.gauge("shareit.cache.item-views.size", cache, Cache::estimatedSize);
+    }
+
+    public ItemDto get(Long itemId, Long userId) {
+        View view = find(itemId, userId);
+
+        if (view == null) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return view.dto;
+    }
+
+    /**
+     * ETag the cached view was stored with, or {@code null} when the view is not cached.
+     */
+    public String getETag(Long itemId, Long userId) {
+        View view = find(itemId, userId);
+
+        return view == null ? null : view.eTag;
+    }
+
+    /**
+     * Evictions of the item so far. Generations are striped by item id, so an eviction of another item in the
+     * same stripe only costs a skipped put.
+     */
+    public long generation(Long itemId) {
+        return generations.get(stripeOf(itemId));
+    }
+
+    /**
+     * Stores the view unless the item was evicted after {@code generation} was taken. The check runs inside the
+     * map's compute, which an eviction waits for, so the view is either dropped here or removed by the eviction.
+     * The view depends on bookings, comments and the clock as well as on the item row, so its ETag is a hash
+     * of the content, taken once here and served with the view afterwards.
+     */
+    public void put(Long itemId, long generation, Long ownerId, Long userId, ItemDto dto) {
+        View view = new View(dto, contentETag(dto), System.nanoTime() + ttlNanos);
+        cache.asMap().compute(itemId, (id, views) -> {
+            if (generation(itemId) != generation) {
+                return views;
+            }
+
+            return (views == null ? ItemViews.empty(ownerId) : views).with(userId, view);
+        });
+    }
+
+    public void evict(Long itemId) {
+        generations.incrementAndGet(stripeOf(itemId));
+        cache.invalidate(itemId);
+    }
+
+    private static int stripeOf(Long itemId) {
+        int hash = Long.hashCode(itemId);
+
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    private String contentETag(ItemDto dto) {
+        try {
+            return ETags.ofContent(viewWriter.writeValueAsBytes(dto));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private View find(Long itemId, Long userId) {
+        ItemViews views = cache.getIfPresent(itemId);
+
+        return views == null ? null : views.get(userId, System.nanoTime());
+    }
+
+    private static class View {
+
+        private final ItemDto dto;
+        private final String eTag;
+        private final long expiresAt;
+
+        private View(ItemDto dto, String eTag, long expiresAt) {
+            this.dto = dto;
+            this.eTag = eTag;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static class ItemViews {
+
+        private final Long ownerId;
+        private final View ownerView;
+        private final View publicView;
+
+        private ItemViews(Long ownerId, View ownerView, View publicView) {
+            this.ownerId = ownerId;
+            this.ownerView = ownerView;
+            this.publicView = publicView;
+        }
+
+        private static ItemViews empty(Long ownerId) {
+            return new ItemViews(ownerId, null, null);
+        }
+
+        private View get(Long userId, long now) {
+            View view = ownerId.equals(userId) ? ownerView : publicView;
+
+            return view != null && now - view.expiresAt < 0 ? view : null;
+        }
+
+        private ItemViews with(Long userId, View view) {
+            return ownerId.equals(userId)
+                    ? new ItemViews(ownerId, view, publicView)
+                    : new ItemViews(ownerId, ownerView, view);
+        }
+    }
+}
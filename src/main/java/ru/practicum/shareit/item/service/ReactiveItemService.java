@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDtoShortResponse;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.ReactiveBookingRepository;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.comment.RankedComment;
+import ru.practicum.shareit.item.comment.ReactiveCommentRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemSearchIndex;
+import ru.practicum.shareit.item.repository.ReactiveItemRepository;
+import ru.practicum.shareit.user.repository.ReactiveUserRepository;
+import ru.practicum.shareit.util.FromSizeRequest;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Item listings as {@link Flux} streams over R2DBC with the results of {@link ItemServiceImpl}.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveItemService {
+
+    private final ReactiveItemRepository reactiveItemRepository;
+    private final ReactiveBookingRepository reactiveBookingRepository;
+    private final ReactiveCommentRepository reactiveCommentRepository;
+    private final ReactiveUserRepository reactiveUserRepository;
+    private final ItemSearchIndex itemSearchIndex;
+
+    @Value("${shareit.comments.embedded-limit:10}")
+    private int commentsLimit;
+
+    public Flux<ItemDtoResponse> getByUserId(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+
+        return reactiveUserRepository.existsById(userId)
+                .flatMapMany(exists -> exists
+                        ? Mono.zip(
+                                reactiveBookingRepository.findLastByItemOwnerId(userId, now, Status.APPROVED)
+                                        .distinct(BookingDtoShortResponse::getItemId)
+                                        .collectMap(BookingDtoShortResponse::getItemId),
+                                reactiveBookingRepository.findNextByItemOwnerId(userId, now, Status.APPROVED)
+                                        .distinct(BookingDtoShortResponse::getItemId)
+                                        .collectMap(BookingDtoShortResponse::getItemId),
+                                reactiveCommentRepository.findNewestByItemOwnerId(userId, commentsLimit)
+                                        .collectMultimap(ranked -> ranked.getComment().getItem().getId()))
+                        .flatMapMany(details -> reactiveItemRepository.findDtosByOwnerId(userId)
+                                .map(item -> withDetails(item, details.getT1(), details.getT2(), details.getT3())))
+                        : Mono.error(new ObjectNotFoundException("Пользователя нет: " + userId)));
+    }
+
+    public Flux<ItemDto> search(String text, Long afterId, int from, int size) {
+        FromSizeRequest page = FromSizeRequest.of(from, size, Sort.by(Sort.Direction.ASC, "id"));
+
+        if (text.isBlank()) {
+            return Flux.empty();
+        }
+
+        if (itemSearchIndex.isReady()) {
+            return Flux.fromIterable(itemSearchIndex.search(text, afterId, page.getOffset(), page.getPageSize()))
+                    .map(ItemMapper::toDto);
+        }
+
+        return reactiveItemRepository.search(text.toLowerCase(), afterId, page.getOffset(), page.getPageSize())
+                .map(ItemMapper::toDto);
+    }
+
+    private static ItemDtoResponse withDetails(ItemDtoResponse item,
+                                               Map<Long, BookingDtoShortResponse> lastBookings,
+                                               Map<Long, BookingDtoShortResponse> nextBookings,
+                                               Map<Long, Collection<RankedComment>> comments) {
+        item.setLastBooking(lastBookings.get(item.getId()));
+        item.setNextBooking(nextBookings.get(item.getId()));
+        Collection<RankedComment> itemComments = comments.get(item.getId());
+        item.setComments(itemComments == null ? null : itemComments.stream()
+                .map(RankedComment::getComment)
+                .collect(Collectors.toList()));
+        item.setCommentsCount(itemComments == null ? 0L : itemComments.iterator().next().getTotal());
+
+        return item;
+    }
+}
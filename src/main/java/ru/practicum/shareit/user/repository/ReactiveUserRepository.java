@@ -0,0 +1,21 @@
+package ru.practicum.shareit.user.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+@RequiredArgsConstructor
+public class ReactiveUserRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Boolean> existsById(Long userId) {
+        return databaseClient.sql("SELECT user_id FROM users WHERE user_id = :userId")
+                .bind("userId", userId)
+                .map(row -> row.get("user_id", Long.class))
+                .first()
+                .hasElement();
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Bounded cache of user id, name and email, filled on first lookup. Returned users are detached copies:
+ * they can be set as an association of a new entity or mapped to a DTO without a SELECT on users.
+ * A missing user is read by the first caller outside the map, concurrent callers wait for its result: a cache
+ * loader would run inside the map's synchronized compute and pin a virtual thread for the whole SELECT.
+ */
+@Component
+public class UserIdentityCache {
+
+    private final UserRepository userRepository;
+    private final AsyncCache<Long, UserIdentity> cache;
+
+    public UserIdentityCache(UserRepository userRepository,
+                             @Value("${shareit.cache.users.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .buildAsync();
+    }
+
+    public User get(Long userId) {
+        CompletableFuture<UserIdentity> loading = new CompletableFuture<>();
+        CompletableFuture<UserIdentity> cached = cache.asMap().putIfAbsent(userId, loading);
+        if (cached == null) {
+            cached = loading;
+            try {
+                loading.complete(load(userId));
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        UserIdentity identity;
+        try {
+            identity = cached.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        if (identity == null) {
+            throw new ObjectNotFoundException("Пользователя нет: " + userId);
+        }
+
+        return new User(identity.id, identity.name, identity.email);
+    }
+
+    public void evict(Long userId) {
+        cache.synchronous().invalidate(userId);
+    }
+
+    private UserIdentity load(Long userId) {
+        return userRepository.findById(userId)
+                .map(user -> new UserIdentity(user.getId(), user.getName(), user.getEmail()))
+                .orElse(null);
+    }
+
+    private static class UserIdentity {
+
+        private final Long id;
+        private final String name;
+        private final String email;
+
+        private UserIdentity(Long id, String name, String email) {
+            this.id = id;
+            this.name = name;
+            this.email = email;
+        }
+    }
+}
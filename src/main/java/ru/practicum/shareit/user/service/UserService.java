@@ -11,6 +11,11 @@ public interface UserService {
 
     UserDto getById(Long userId);
 
+    /**
+     * ETag of {@link #getById}, taken from the identity cache without loading the user.
+     */
+    String getETag(Long userId);
+
     UserDto create(CreateUserDto createUserDto);
 
     UserDto update(Long userId, UpdateUserDto updateUserDto);
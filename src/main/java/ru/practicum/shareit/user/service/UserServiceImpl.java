@@ -4,12 +4,16 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.service.ItemViewCache;
 import ru.practicum.shareit.user.dto.CreateUserDto;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.ETags;
+import ru.practicum.shareit.util.TransactionUtils;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -18,6 +22,9 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
+    private final CommentRepository commentRepository;
+    private final ItemViewCache itemViewCache;
 
     @Transactional(readOnly = true)
     @Override
@@ -35,6 +42,13 @@ public class UserServiceImpl implements UserService {
                 () -> new ObjectNotFoundException("Пользователя нет: " + userId)));
     }
 
+    @Override
+    public String getETag(Long userId) {
+        User user = userIdentityCache.get(userId);
+
+        return ETags.of(user.getId(), user.getName(), user.getEmail());
+    }
+
     @Transactional
     @Override
     public UserDto create(CreateUserDto createUserDto) {
@@ -54,10 +68,16 @@ public class UserServiceImpl implements UserService {
             updateUser.setEmail(updateUserDto.getEmail());
         }
 
-        if ((updateUserDto.getName() != null) && (!updateUserDto.getName().isBlank())) {
+        if ((updateUserDto.getName() != null) && (!updateUserDto.getName().isBlank())
+                && !updateUserDto.getName().equals(updateUser.getName())) {
             updateUser.setName(updateUserDto.getName());
+            // Cached item views show comment authors by name.
+            List<Long> commentedItemIds = commentRepository.findItemIdsByAuthorId(userId);
+            TransactionUtils.afterCommit(() -> commentedItemIds.forEach(itemViewCache::evict));
         }
 
+        TransactionUtils.afterCommit(() -> userIdentityCache.evict(userId));
+
         return UserMapper.toDto(updateUser);
     }
 
@@ -67,14 +87,12 @@ public class UserServiceImpl implements UserService {
         User delUser = userRepository.findById(userId).orElseThrow(
                 () -> new ObjectNotFoundException("Пользователя нет: " + userId));
         userRepository.deleteById(userId);
+        TransactionUtils.afterCommit(() -> userIdentityCache.evict(userId));
 
         return UserMapper.toDto(delUser);
     }
 
-    @Transactional(readOnly = true)
     public void throwIfNotExist(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new ObjectNotFoundException("Пользователя нет: " + userId);
-        }
+        userIdentityCache.get(userId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ETags {
+
+    /**
+     * Strong validator over everything the representation depends on, e.g. row versions and ids. Each part is
+     * length-prefixed, so parts that contain the separator cannot shift into each other.
+     */
+    public static String of(Object... parts) {
+        StringBuilder content = new StringBuilder();
+        for (Object part : parts) {
+            if (part == null) {
+                content.append('-');
+                continue;
+            }
+            String value = part.toString();
+            content.append(value.length()).append(':').append(value);
+        }
+
+        return ofContent(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String ofContent(byte[] content) {
+        return DigestUtils.md5DigestAsHex(content);
+    }
+
+    /**
+     * Answers a conditional GET. The ETag is asked for first: if it is known without loading the resource and
+     * matches {@code If-None-Match}, the client gets 304 and the body is never built. Otherwise the body is
+     * built and sent with the ETag, which is asked for again when it only became known while building; Spring
+     * still answers 304 for a match then, without serializing the body.
+     */
+    public static <T> ResponseEntity<T> respond(WebRequest request, Supplier<String> eTag, Supplier<T> body) {
+        String known = eTag.get();
+        if (known != null && request.checkNotModified(known)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(known).build();
+        }
+
+        T result = body.get();
+        String current = known != null ? known : eTag.get();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (current != null) {
+            response.eTag(current);
+        }
+
+        return response.body(result);
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.util;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.exception.ValidationException;
+
+public class FromSizeRequest extends PageRequest {
+
+    private final int from;
+
+    protected FromSizeRequest(int from, int size, Sort sort) {
+        super(from / size, size, sort);
+        this.from = from;
+    }
+
+    public static FromSizeRequest of(int from, int size, Sort sort) {
+        if (from < 0 || size < 1) {
+            throw new ValidationException("Некорректные параметры страницы: from=" + from + ", size=" + size);
+        }
+
+        return new FromSizeRequest(from, size, sort);
+    }
+
+    @Override
+    public long getOffset() {
+        return from;
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.util;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Jackson modules Boot adds to the application's ObjectMapper. Blackbird replaces reflective getter calls with
+ * generated lambdas; dates are written by {@link IsoLocalDateTimeSerializer}, registered after the JSR-310
+ * module so it takes precedence. Both keep the JSON byte for byte as it was. MVC responses are written by
+ * {@link PrebuiltWriterJsonConverter}, which replaces Boot's Jackson converter.
+ */
+@Configuration
+public class JsonConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.json.blackbird.enabled", matchIfMissing = true)
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    public Module isoDateTimeModule() {
+        return new SimpleModule("shareit-iso-date-time")
+                .addSerializer(LocalDateTime.class, new IsoLocalDateTimeSerializer());
+    }
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new PrebuiltWriterJsonConverter(objectMapper);
+    }
+}
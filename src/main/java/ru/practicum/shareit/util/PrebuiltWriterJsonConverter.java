@@ -0,0 +1,70 @@
+package ru.practicum.shareit.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConversionException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.TypeUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes JSON responses with an {@link ObjectWriter} built once per response type, which holds the resolved root
+ * serializer. Views, filters and event streams take the standard path.
+ */
+public class PrebuiltWriterJsonConverter extends MappingJackson2HttpMessageConverter {
+
+    private final Map<JavaType, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public PrebuiltWriterJsonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+        if (object instanceof MappingJacksonValue
+                || (contentType != null && contentType.isCompatibleWith(MediaType.TEXT_EVENT_STREAM))) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+
+        ObjectWriter writer = writers.computeIfAbsent(javaType(object, type), getObjectMapper()::writerFor);
+        try (JsonGenerator generator = getObjectMapper().getFactory().createGenerator(
+                StreamUtils.nonClosing(outputMessage.getBody()), getJsonEncoding(contentType))) {
+            writePrefix(generator, object);
+            writer.writeValue(generator, object);
+            writeSuffix(generator, object);
+            generator.flush();
+        } catch (InvalidDefinitionException e) {
+            throw new HttpMessageConversionException("Не удалось описать тип: " + e.getType(), e);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotWritableException("Не удалось записать JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    // Like the standard path, the declared type is used only for containers, where it carries the element type.
+    private JavaType javaType(Object object, @Nullable Type type) {
+        if (type != null && TypeUtils.isAssignable(type, object.getClass())) {
+            JavaType javaType = getJavaType(type, null);
+            if (javaType.isContainerType()) {
+                return javaType;
+            }
+        }
+        return getObjectMapper().constructType(object.getClass());
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.util;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Adds the number of SQL statements a request issued as a response header. The body is buffered so the header
+ * can still be set after the handler ran, which is why this is for dev only and skips the streaming exports.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.query-count.header.enabled", havingValue = "true")
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private static final String HEADER = "X-Query-Count";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+
+        QueryCountInspector.reset();
+        try {
+            chain.doFilter(request, wrapper);
+        } finally {
+            wrapper.setHeader(HEADER, String.valueOf(QueryCountInspector.count()));
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().endsWith("/export");
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Counts SQL statements Hibernate prepares on the current thread. Registered through
+ * {@code hibernate.session_factory.statement_inspector}, so Hibernate creates the instance and the state is static.
+ * The statements themselves are kept only between {@link #capture()} and {@link #reset()}.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<Counter> COUNTER = ThreadLocal.withInitial(Counter::new);
+
+    @Override
+    public String inspect(String sql) {
+        Counter counter = COUNTER.get();
+        counter.count++;
+        if (counter.statements != null) {
+            counter.statements.add(sql);
+        }
+
+        return sql;
+    }
+
+    public static void reset() {
+        Counter counter = COUNTER.get();
+        counter.count = 0;
+        counter.statements = null;
+    }
+
+    public static void capture() {
+        Counter counter = COUNTER.get();
+        counter.count = 0;
+        counter.statements = new ArrayList<>();
+    }
+
+    public static int count() {
+        return COUNTER.get().count;
+    }
+
+    public static List<String> statements() {
+        List<String> statements = COUNTER.get().statements;
+
+        return statements == null ? Collections.emptyList() : List.copyOf(statements);
+    }
+
+    private static class Counter {
+        private int count;
+        private List<String> statements;
+    }
+}
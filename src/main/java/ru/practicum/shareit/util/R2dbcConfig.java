@@ -0,0 +1,75 @@
+package ru.practicum.shareit.util;
+
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * R2DBC client for the reactive read API, connected to the database the JDBC pool uses, so the reactive
+ * listings see what JPA wrote and follow any {@code spring.datasource.url} override. An H2 URL opens the same
+ * embedded database; any other URL is used with the {@code r2dbc:} scheme and needs its driver on the classpath.
+ * The connection factory is deliberately not a bean: Boot turns off the JDBC DataSource when it sees one,
+ * which is also why {@link ru.practicum.shareit.ShareItApp} excludes the R2DBC auto-configuration.
+ * Reactive reads run without transactions, {@code @Transactional} stays with JPA.
+ */
+@Configuration
+public class R2dbcConfig {
+
+    private static final String H2_PREFIX = "jdbc:h2:";
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(DataSourceProperties properties,
+                                                 @Value("${shareit.r2dbc.pool.max-size:10}") int maxSize) {
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectTo(properties))
+                .maxSize(maxSize)
+                .build());
+
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void dispose() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+
+    private static ConnectionFactory connectTo(DataSourceProperties properties) {
+        String url = properties.determineUrl();
+        String username = properties.determineUsername();
+        String password = properties.determinePassword();
+
+        if (url.startsWith(H2_PREFIX)) {
+            H2ConnectionConfiguration.Builder configuration = H2ConnectionConfiguration.builder()
+                    .url(url.substring(H2_PREFIX.length()))
+                    .username(username);
+            if (password != null) {
+                configuration.password(password);
+            }
+
+            return new H2ConnectionFactory(configuration.build());
+        }
+
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url.replaceFirst("^jdbc:", "r2dbc:"))
+                .mutate()
+                .option(ConnectionFactoryOptions.USER, username);
+        if (password != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+
+        return ConnectionFactories.get(options.build());
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in mode that runs every Tomcat request on its own virtual thread instead of the fixed worker pool.
+ * Services are called on the request thread, so {@code @Transactional} work runs on the same virtual thread.
+ * The build targets Java 17, so the executor is looked up at runtime and the mode needs a Java 21+ JVM.
+ * Blocking inside {@code synchronized} pins the carrier thread. The application's own locks are
+ * {@link java.util.concurrent.locks.ReentrantLock}s and its caches read the database outside the map's compute,
+ * but drivers and libraries may still pin: start with {@code -Djdk.tracePinnedThreads=short} to see where.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService requestExecutor) {
+        log.info("Запросы выполняются в виртуальных потоках.");
+
+        return protocolHandler -> protocolHandler.setExecutor(requestExecutor);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService requestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Виртуальные потоки доступны начиная с Java 21, текущая версия: "
+                    + Runtime.version(), e);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Не удалось создать исполнитель на виртуальных потоках", e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+-- Booker listings filter by booker and return the newest bookings first.
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC);
+
+-- Per-item lookups: last/next approved booking, interval index load, pending decisions, comment eligibility.
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date, end_date);
+
+-- Owner listings and dashboards start from the owner's items.
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+
+-- Comments of an item, newest first.
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created);
@@ -0,0 +1,3 @@
+-- Optimistic locking: every committed change of a booking or an item bumps its version.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,4 @@
+-- Item views embed the newest comments of an item and GET /items/{id}/comments pages through them
+-- by (created, comment_id), so the index carries the same order and replaces the one on (item_id, created).
+DROP INDEX IF EXISTS idx_comments_item_created;
+CREATE INDEX IF NOT EXISTS idx_comments_item_created_id ON comments (item_id, created DESC, comment_id DESC);
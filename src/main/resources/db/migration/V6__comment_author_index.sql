@@ -0,0 +1,2 @@
+-- Renaming a user evicts the cached views of the items they commented on.
+CREATE INDEX IF NOT EXISTS idx_comments_author_item ON comments (author_id, item_id);
@@ -0,0 +1,133 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.util.QueryCountInspector;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs each hot finder, takes the SELECT Hibernate issued and checks that H2's plan for it reads no table in full.
+ * H2 also indexes every foreign key on its own and may pick that index over the migration's composite one,
+ * so the plans are checked for the absence of a table scan and the migration indexes are checked to exist.
+ */
+@SpringBootTest
+class AccessPathIndexTest {
+
+    private static final String PRIMARY_KEY = "PRIMARY_KEY";
+    private static final Sort BY_START = Sort.by(Sort.Direction.DESC, "start");
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void migrationCreatesAccessPathIndexes() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT index_name FROM information_schema.indexes WHERE index_name LIKE 'IDX_%'", String.class);
+
+        assertTrue(indexes.containsAll(List.of("IDX_BOOKINGS_BOOKER_START", "IDX_BOOKINGS_ITEM_STATUS_START",
+                "IDX_ITEMS_OWNER", "IDX_COMMENTS_ITEM_CREATED_ID")), () -> "Индексы: " + indexes);
+    }
+
+    @Test
+    void bookerListingsAvoidTableScan() {
+        assertNoTableScan(() -> bookingRepository.findDtosByBookerId(1L, BY_START));
+        assertNoTableScan(() -> bookingRepository.findDtosByBookerIdAndStartBeforeAndEndAfter(1L, now, now, BY_START));
+        assertNoTableScan(() -> bookingRepository.findDtosByBookerIdAndEndBefore(1L, now, BY_START));
+        assertNoTableScan(() -> bookingRepository.findDtosByBookerIdAndStartAfter(1L, now, BY_START));
+        assertNoTableScan(() -> bookingRepository.findDtosByBookerIdAndStatus(1L, Status.WAITING, BY_START));
+        assertNoTableScan(() -> bookingRepository.streamAllByUserId(1L, false, State.ALL, now, 100)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void ownerListingsAvoidTableScan() {
+        assertNoTableScan(() -> bookingRepository.findDtosByItemOwnerId(1L, BY_START));
+        assertNoTableScan(() -> bookingRepository.findDtosByItemOwnerIdAndStartBeforeAndEndAfter(1L, now, now,
+                BY_START));
+        assertNoTableScan(() -> bookingRepository.findDtosByItemOwnerIdAndEndBefore(1L, now, BY_START));
+        assertNoTableScan(() -> bookingRepository.findDtosByItemOwnerIdAndStartAfter(1L, now, BY_START));
+        assertNoTableScan(() -> bookingRepository.findDtosByItemOwnerIdAndStatus(1L, Status.WAITING, BY_START));
+        assertNoTableScan(() -> bookingRepository.streamAllByUserId(1L, true, State.ALL, now, 100)
+                .collect(Collectors.toList()));
+        assertNoTableScan(() -> bookingRepository.findLastByItemOwnerId(1L, now, Status.APPROVED));
+        assertNoTableScan(() -> bookingRepository.findNextByItemOwnerId(1L, now, Status.APPROVED));
+    }
+
+    @Test
+    void itemLookupsAvoidTableScan() {
+        assertNoTableScan(() -> bookingRepository.findAllByItemIdAndStatus(1L, Status.APPROVED, BY_START));
+        assertNoTableScan(() -> bookingRepository.existsByItemIdAndBookerIdAndEndBefore(1L, 1L, now));
+        assertNoTableScan(() -> bookingRepository.findIntervalsByItemId(1L, List.of(Status.WAITING, Status.APPROVED),
+                now));
+        assertNoTableScan(() -> bookingRepository.findDecisionCandidatesByItemId(1L, Status.WAITING));
+    }
+
+    @Test
+    void lookupsByIdUsePrimaryKey() {
+        assertNoTableScan(() -> bookingRepository.findWithItemAndBookerById(1L), PRIMARY_KEY);
+        assertNoTableScan(() -> bookingRepository.findDecisionCandidatesByIds(List.of(1L, 2L)), PRIMARY_KEY);
+        assertNoTableScan(() -> itemRepository.findAvailableForIndex(0L, PageRequest.of(0, 10)), PRIMARY_KEY);
+        assertNoTableScan(() -> itemRepository.search("дрель", 0L, PageRequest.of(0, 10, Sort.by("id"))), PRIMARY_KEY);
+    }
+
+    @Test
+    void itemAndCommentListingsAvoidTableScan() {
+        assertNoTableScan(() -> itemRepository.findDtosByOwnerId(1L));
+        assertNoTableScan(() -> commentRepository.findNewestDtosByItemId(1L, PageRequest.of(0, 10)));
+        assertNoTableScan(() -> commentRepository.findNewestDtosByItemIdBefore(1L, now, 1L, PageRequest.of(0, 10)));
+        assertNoTableScan(() -> commentRepository.countByItemId(1L));
+        assertNoTableScan(() -> commentRepository.findNewestByItemOwnerId(1L, 10));
+    }
+
+    private void assertNoTableScan(Runnable call, String... indexes) {
+        QueryCountInspector.capture();
+        List<String> selects;
+        try {
+            transactionTemplate.executeWithoutResult(status -> call.run());
+            selects = QueryCountInspector.statements().stream()
+                    .filter(sql -> sql.trim().toLowerCase().startsWith("select"))
+                    .collect(Collectors.toList());
+        } finally {
+            QueryCountInspector.reset();
+        }
+        assertFalse(selects.isEmpty(), "Запрос не был выполнен");
+
+        String sql = selects.get(selects.size() - 1);
+        String plan = jdbcTemplate.query("EXPLAIN " + sql, statement -> {
+            for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                statement.setObject(i, null);
+            }
+        }, (rs, rowNum) -> rs.getString(1)).get(0).toUpperCase();
+
+        assertFalse(plan.contains("TABLESCAN"), () -> "В плане есть полный просмотр таблицы:\n" + plan);
+        for (String index : indexes) {
+            assertTrue(plan.contains(index), () -> "В плане нет индекса " + index + ":\n" + plan);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.dto.UpdateBookingsDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.DecisionOutcome;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.UnavailableException;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@SpringBootTest
+class BookingConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+
+    private User owner;
+    private User booker;
+    private Long itemId;
+
+    @BeforeEach
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        owner = userRepository.save(new User(null, "Владелец", "owner-" + suffix + "@race.ru"));
+        booker = userRepository.save(new User(null, "Арендатор", "booker-" + suffix + "@race.ru"));
+        itemId = itemService.create(owner.getId(), new CreateItemDto(null, "Дрель", "Дрель для гонок", true)).getId();
+    }
+
+    @Test
+    void concurrentDecisionsOnOneBookingLoseNoUpdate() throws Exception {
+        Long bookingId = book(1);
+        List<Callable<Outcome>> decisions = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            boolean approved = i % 2 == 0;
+            decisions.add(() -> decide(bookingId, approved));
+        }
+
+        List<Outcome> outcomes = runConcurrently(decisions);
+
+        long approvals = 0;
+        for (int i = 0; i < THREADS; i += 2) {
+            approvals += outcomes.get(i) == Outcome.UPDATED ? 1 : 0;
+        }
+        Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+        assertTrue(outcomes.contains(Outcome.UPDATED));
+        assertTrue(approvals <= 1);
+        // An approval that reported success is never overwritten by a rejection that raced with it.
+        assertEquals(approvals == 1 ? Status.APPROVED : Status.REJECTED, booking.getStatus());
+        assertTrue(booking.getVersion() >= 1);
+    }
+
+    @Test
+    void concurrentApprovalsOfOneBookingApproveOnce() throws Exception {
+        Long bookingId = book(1);
+        List<Callable<Outcome>> approvals = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            approvals.add(() -> decide(bookingId, true));
+        }
+
+        List<Outcome> outcomes = runConcurrently(approvals);
+
+        assertEquals(1, outcomes.stream().filter(outcome -> outcome == Outcome.UPDATED).count());
+        assertEquals(Status.APPROVED, bookingRepository.findById(bookingId).orElseThrow().getStatus());
+        // Approving a waiting booking leaves the item's reserved intervals, and so its version, as they were.
+        assertEquals(0L, itemRepository.findById(itemId).orElseThrow().getVersion());
+    }
+
+    @Test
+    void concurrentReapprovalsOfOverlappingBookingsApproveOne() throws Exception {
+        Long first = book(1);
+        bookingService.update(owner.getId(), first, false);
+        Long second = book(1);
+        bookingService.update(owner.getId(), second, false);
+
+        List<Outcome> outcomes = runConcurrently(List.of(() -> decide(first, true), () -> decide(second, true)));
+
+        assertEquals(1, outcomes.stream().filter(outcome -> outcome == Outcome.UPDATED).count());
+        assertEquals(1, bookingRepository.findAllByItemIdAndStatus(itemId, Status.APPROVED, Sort.unsorted()).size());
+        // The interval index decides between them; the item itself is not written.
+        assertEquals(0L, itemRepository.findById(itemId).orElseThrow().getVersion());
+    }
+
+    @Test
+    void nonOverlappingApprovalsOnOneItemAllSucceed() throws Exception {
+        int bookings = THREADS * 10;
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < bookings; i++) {
+            bookingIds.add(book(i + 1));
+        }
+        List<Callable<Outcome>> approvals = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            approvals.add(() -> decide(bookingId, true));
+        }
+
+        long start = System.nanoTime();
+        List<Outcome> outcomes = runConcurrently(approvals);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long approved = outcomes.stream().filter(outcome -> outcome == Outcome.UPDATED).count();
+        long conflicts = outcomes.stream().filter(outcome -> outcome == Outcome.CONFLICT).count();
+        log.info("Подтверждений на одной вещи: {}, успешно {}, конфликтов {}, {} в секунду.",
+                bookings, approved, conflicts, String.format("%.1f", bookings / seconds));
+
+        assertEquals(bookings, approved);
+        assertEquals(approved, bookingIds.stream()
+                .filter(id -> bookingRepository.findById(id).orElseThrow().getStatus() == Status.APPROVED)
+                .count());
+        assertEquals(0L, itemRepository.findById(itemId).orElseThrow().getVersion());
+    }
+
+    @Test
+    void bulkRejectRacingApprovalsReportsOnlyRowsItChanged() throws Exception {
+        raceBulkDecisionWithSingleOnes(false);
+    }
+
+    @Test
+    void bulkApproveRacingRejectionsReportsOnlyRowsItChanged() throws Exception {
+        raceBulkDecisionWithSingleOnes(true);
+    }
+
+    private void raceBulkDecisionWithSingleOnes(boolean bulkApproves) throws Exception {
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < THREADS * 2; i++) {
+            bookingIds.add(book(i + 1));
+        }
+        AtomicReference<List<BookingDecisionDto>> bulk = new AtomicReference<>();
+        List<Callable<Outcome>> decisions = new ArrayList<>();
+        decisions.add(() -> {
+            bulk.set(bookingService.updateAll(owner.getId(), new UpdateBookingsDto(bookingIds, null), bulkApproves));
+            return Outcome.UPDATED;
+        });
+        for (Long bookingId : bookingIds) {
+            decisions.add(() -> decide(bookingId, !bulkApproves));
+        }
+
+        List<Outcome> singles = runConcurrently(decisions).subList(1, decisions.size());
+
+        Map<Long, DecisionOutcome> bulkOutcomes = bulk.get().stream()
+                .collect(Collectors.toMap(BookingDecisionDto::getBookingId, BookingDecisionDto::getOutcome));
+        for (int i = 0; i < bookingIds.size(); i++) {
+            Booking booking = bookingRepository.findById(bookingIds.get(i)).orElseThrow();
+            // Every reported change is a committed one, and each commit bumped the version once.
+            long reported = (bulkOutcomes.get(booking.getId()) == DecisionOutcome.UPDATED ? 1 : 0)
+                    + (singles.get(i) == Outcome.UPDATED ? 1 : 0);
+            assertEquals(reported, booking.getVersion());
+            if (booking.getStatus() == Status.APPROVED) {
+                // The approved interval is still reserved.
+                assertEquals(Outcome.UNAVAILABLE, create(itemId, booking.getStart(), booking.getEnd()));
+            }
+        }
+    }
+
+    @Test
+    void overlappingCreationsOnOneItemBookOnce() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Callable<Outcome>> creations = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            LocalDateTime shiftedStart = start.plusMinutes(i);
+            creations.add(() -> create(itemId, shiftedStart, shiftedStart.plusHours(1)));
+        }
+
+        List<Outcome> outcomes = runConcurrently(creations);
+
+        assertEquals(1, outcomes.stream().filter(outcome -> outcome == Outcome.UPDATED).count());
+        assertEquals(THREADS - 1, outcomes.stream().filter(outcome -> outcome == Outcome.UNAVAILABLE).count());
+        assertEquals(1, bookingRepository.findAllByItemIdAndStatus(itemId, Status.WAITING, Sort.unsorted()).size());
+    }
+
+    @Test
+    void creationsOnDifferentItemsAllSucceed() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Callable<Outcome>> creations = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Long otherItemId = itemService.create(owner.getId(),
+                    new CreateItemDto(null, "Дрель " + i, "Еще одна дрель", true)).getId();
+            creations.add(() -> create(otherItemId, start, start.plusHours(1)));
+        }
+
+        List<Outcome> outcomes = runConcurrently(creations);
+
+        assertTrue(outcomes.stream().allMatch(outcome -> outcome == Outcome.UPDATED));
+    }
+
+    private Long book(int day) {
+        LocalDateTime start = LocalDateTime.now().plusDays(day);
+        CreateBookingDto booking = new CreateBookingDto(start, start.plusHours(1), itemId);
+
+        return bookingService.create(booking, booker.getId(), itemId).getId();
+    }
+
+    private Outcome create(Long bookedItemId, LocalDateTime start, LocalDateTime end) {
+        try {
+            bookingService.create(new CreateBookingDto(start, end, bookedItemId), booker.getId(), bookedItemId);
+            return Outcome.UPDATED;
+        } catch (UnavailableException e) {
+            return Outcome.UNAVAILABLE;
+        }
+    }
+
+    private Outcome decide(Long bookingId, boolean approved) {
+        try {
+            bookingService.update(owner.getId(), bookingId, approved);
+            return Outcome.UPDATED;
+        } catch (UnavailableException e) {
+            return Outcome.UNAVAILABLE;
+        } catch (ConflictException e) {
+            return Outcome.CONFLICT;
+        }
+    }
+
+    private static List<Outcome> runConcurrently(List<Callable<Outcome>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Outcome>> futures = new ArrayList<>();
+            for (Callable<Outcome> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+
+            List<Outcome> outcomes = new ArrayList<>();
+            for (Future<Outcome> future : futures) {
+                outcomes.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return outcomes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private enum Outcome {
+        UPDATED,
+        UNAVAILABLE,
+        CONFLICT
+    }
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A fetch size of 2 makes every export below cross at least one clear() of the persistence context.
+@SpringBootTest(properties = "shareit.bookings.export.fetch-size=2")
+@AutoConfigureMockMvc
+class BookingExportTest {
+
+    private static final String HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemService itemService;
+
+    private User owner;
+    private User booker;
+    private User stranger;
+    private Item item;
+    private Booking past;
+    private Booking rejected;
+    private Booking waiting;
+    private Booking future;
+
+    @BeforeEach
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        owner = userRepository.save(new User(null, "Владелец", "owner-" + suffix + "@export.ru"));
+        booker = userRepository.save(new User(null, "Арендатор", "booker-" + suffix + "@export.ru"));
+        stranger = userRepository.save(new User(null, "Прохожий", "stranger-" + suffix + "@export.ru"));
+        CreateItemDto drill = new CreateItemDto(null, "Дрель", "Ударная дрель", true);
+        item = itemRepository.findById(itemService.create(owner.getId(), drill).getId()).orElseThrow();
+
+        LocalDateTime now = LocalDateTime.now();
+        past = save(now.minusDays(5), Status.APPROVED);
+        rejected = save(now.minusDays(3), Status.REJECTED);
+        waiting = save(now.plusDays(2), Status.WAITING);
+        future = save(now.plusDays(4), Status.APPROVED);
+    }
+
+    @Test
+    void bookerExportWritesOneLinePerBookingNewestFirst() throws Exception {
+        List<JsonNode> lines = export("/bookings/export", booker, "ALL");
+
+        assertEquals(4, lines.size());
+        assertEquals(List.of(future.getId(), waiting.getId(), rejected.getId(), past.getId()), ids(lines));
+        JsonNode first = lines.get(0);
+        assertEquals(Status.APPROVED.name(), first.get("status").asText());
+        assertEquals(item.getId(), first.get("item").get("id").asLong());
+        assertEquals("Дрель", first.get("item").get("name").asText());
+        assertEquals(booker.getId(), first.get("booker").get("id").asLong());
+        assertEquals("Арендатор", first.get("booker").get("name").asText());
+    }
+
+    @Test
+    void ownerExportFiltersByState() throws Exception {
+        assertEquals(4, export("/bookings/owner/export", owner, "ALL").size());
+        assertEquals(List.of(waiting.getId()), ids(export("/bookings/owner/export", owner, "WAITING")));
+        assertEquals(List.of(rejected.getId()), ids(export("/bookings/owner/export", owner, "REJECTED")));
+        assertEquals(List.of(rejected.getId(), past.getId()), ids(export("/bookings/owner/export", owner, "PAST")));
+        assertEquals(List.of(future.getId(), waiting.getId()),
+                ids(export("/bookings/owner/export", owner, "FUTURE")));
+    }
+
+    @Test
+    void rolesDoNotSeeEachOthersBookings() throws Exception {
+        assertEquals(0, export("/bookings/export", owner, "ALL").size());
+        assertEquals(0, export("/bookings/owner/export", booker, "ALL").size());
+        assertEquals(0, export("/bookings/export", stranger, "ALL").size());
+        assertEquals(0, export("/bookings/export", booker, "CURRENT").size());
+    }
+
+    private Booking save(LocalDateTime start, Status status) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build());
+    }
+
+    private List<JsonNode> export(String path, User user, String state) throws Exception {
+        MvcResult started = mockMvc.perform(get(path).header(HEADER, user.getId()).param("state", state))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isEmpty()) {
+                lines.add(objectMapper.readTree(line));
+            }
+        }
+        return lines;
+    }
+
+    private static List<Long> ids(List<JsonNode> lines) {
+        List<Long> ids = new ArrayList<>();
+        lines.forEach(line -> ids.add(line.get("id").asLong()));
+        return ids;
+    }
+}
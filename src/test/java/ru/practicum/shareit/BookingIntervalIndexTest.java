@@ -0,0 +1,124 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.repository.BookingIntervalIndex;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingIntervalIndexTest {
+
+    private static final Long ITEM_ID = 1L;
+
+    private BookingRepository bookingRepository;
+    private BookingIntervalIndex index;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        index = new BookingIntervalIndex(bookingRepository);
+        base = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @Test
+    void overlappingIntervalIsRejectedAndTouchingOneAccepted() {
+        assertTrue(index.tryReserve(ITEM_ID, 1L, at(10), at(20)));
+
+        assertFalse(index.tryReserve(ITEM_ID, 2L, at(15), at(25)));
+        assertFalse(index.tryReserve(ITEM_ID, 2L, at(5), at(11)));
+        assertFalse(index.tryReserve(ITEM_ID, 2L, at(12), at(13)));
+        assertTrue(index.tryReserve(ITEM_ID, 2L, at(20), at(30)));
+        assertTrue(index.tryReserve(ITEM_ID, 3L, at(0), at(10)));
+        assertFalse(index.isFree(ITEM_ID, at(0), at(30)));
+        assertFalse(index.tryReserve(ITEM_ID, 4L, at(10), at(20)));
+    }
+
+    @Test
+    void longIntervalIsFoundBehindShorterOnes() {
+        assertTrue(index.tryReserve(ITEM_ID, 1L, at(0), at(100)));
+
+        // Later starts end earlier, so only the running maximum of ends catches the first interval.
+        assertFalse(index.isFree(ITEM_ID, at(50), at(60)));
+        assertTrue(index.tryReserve(ITEM_ID, 2L, at(100), at(101)));
+        assertFalse(index.isFree(ITEM_ID, at(99), at(100)));
+    }
+
+    @Test
+    void releasedIntervalIsFreeAgain() {
+        index.tryReserve(ITEM_ID, 1L, at(10), at(20));
+        index.tryReserve(ITEM_ID, 2L, at(30), at(40));
+
+        index.release(ITEM_ID, 1L, at(10));
+        index.release(ITEM_ID, 2L, at(0));
+
+        assertTrue(index.tryReserve(ITEM_ID, 3L, at(10), at(20)));
+        assertFalse(index.isFree(ITEM_ID, at(10), at(20)));
+        // A release with the wrong start leaves the interval in place.
+        assertFalse(index.isFree(ITEM_ID, at(30), at(40)));
+    }
+
+    @Test
+    void storedBookingsAreLoadedOnceWithoutTheOneBeingReserved() {
+        when(bookingRepository.findIntervalsByItemId(eq(ITEM_ID), anyList(), any())).thenReturn(List.of(
+                new BookingInterval(1L, at(10), at(20)),
+                new BookingInterval(2L, at(30), at(40))));
+
+        // Re-approving booking 2 must not collide with its own stored interval.
+        assertTrue(index.tryReserve(ITEM_ID, 2L, at(30), at(40)));
+        assertFalse(index.isFree(ITEM_ID, at(15), at(16)));
+        assertFalse(index.isFree(ITEM_ID, at(35), at(36)));
+        verify(bookingRepository, times(1)).findIntervalsByItemId(eq(ITEM_ID), anyList(), any());
+
+        index.evict(ITEM_ID);
+        index.isFree(ITEM_ID, at(0), at(1));
+        verify(bookingRepository, times(2)).findIntervalsByItemId(eq(ITEM_ID), anyList(), any());
+    }
+
+    @Test
+    void endedIntervalsNoLongerBlock() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        when(bookingRepository.findIntervalsByItemId(eq(ITEM_ID), anyList(), any())).thenReturn(List.of(
+                new BookingInterval(1L, now.minusHours(3), now.minusHours(1))));
+
+        assertTrue(index.isFree(ITEM_ID, now.minusHours(2), now.plusHours(1)));
+    }
+
+    @Test
+    void agreesWithLinearScanOverTenThousandBookings() {
+        Random random = new Random(42);
+        List<long[]> reserved = new ArrayList<>();
+        for (long id = 1; id <= 20_000; id++) {
+            long start = random.nextInt(1_000_000);
+            long end = start + 1 + random.nextInt(30);
+            boolean free = reserved.stream().noneMatch(interval -> interval[0] < end && start < interval[1]);
+
+            assertEquals(free, index.tryReserve(ITEM_ID, id, at(start), at(end)), () -> start + ".." + end);
+            if (free) {
+                reserved.add(new long[]{start, end});
+            }
+        }
+
+        assertTrue(reserved.size() > 10_000, () -> "Принято " + reserved.size());
+    }
+
+    private LocalDateTime at(long minutes) {
+        return base.plusMinutes(minutes);
+    }
+}
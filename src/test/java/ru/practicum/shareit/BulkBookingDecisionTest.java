@@ -0,0 +1,138 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.UpdateBookingsDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.DecisionOutcome;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BulkBookingDecisionTest {
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        owner = userRepository.save(new User(null, "Владелец", "owner-" + suffix + "@bulk.ru"));
+        booker = userRepository.save(new User(null, "Арендатор", "booker-" + suffix + "@bulk.ru"));
+        Long itemId = itemService.create(owner.getId(), new CreateItemDto(null, "Дрель", "Дрель", true)).getId();
+        item = itemRepository.findById(itemId).orElseThrow();
+    }
+
+    @Test
+    void itemDecisionChangesEveryWaitingBookingOfTheItem() {
+        Long first = book(1, Status.WAITING);
+        Long second = book(2, Status.WAITING);
+        Long rejected = book(3, Status.REJECTED);
+
+        Map<Long, DecisionOutcome> outcomes = decide(owner, new UpdateBookingsDto(null, item.getId()), true);
+
+        assertEquals(Map.of(first, DecisionOutcome.UPDATED, second, DecisionOutcome.UPDATED), outcomes);
+        assertEquals(Status.APPROVED, status(first));
+        assertEquals(Status.APPROVED, status(second));
+        assertEquals(Status.REJECTED, status(rejected));
+    }
+
+    @Test
+    void itemWithoutWaitingBookingsIsDecidedWithNoOutcomes() {
+        book(1, Status.APPROVED);
+
+        assertTrue(decide(owner, new UpdateBookingsDto(null, item.getId()), false).isEmpty());
+    }
+
+    @Test
+    void itemDecisionIsRefusedToAnotherUserAndForMissingItem() {
+        book(1, Status.WAITING);
+
+        assertThrows(ObjectNotFoundException.class,
+                () -> bookingService.updateAll(booker.getId(), new UpdateBookingsDto(null, item.getId()), true));
+        assertThrows(ObjectNotFoundException.class,
+                () -> bookingService.updateAll(owner.getId(), new UpdateBookingsDto(null, Long.MAX_VALUE), true));
+    }
+
+    @Test
+    void idDecisionReportsEveryIdItCouldNotChange() {
+        Long waiting = book(1, Status.WAITING);
+        Long approved = book(2, Status.APPROVED);
+        Item otherItem = itemRepository.findById(itemService.create(booker.getId(),
+                new CreateItemDto(null, "Пила", "Пила", true)).getId()).orElseThrow();
+        Long foreign = bookingRepository.save(booking(otherItem, owner, 1, Status.WAITING)).getId();
+
+        Map<Long, DecisionOutcome> outcomes = decide(owner,
+                new UpdateBookingsDto(List.of(waiting, approved, foreign, Long.MAX_VALUE), null), false);
+
+        assertEquals(Map.of(waiting, DecisionOutcome.UPDATED, approved, DecisionOutcome.ALREADY_APPROVED,
+                foreign, DecisionOutcome.NOT_OWNER, Long.MAX_VALUE, DecisionOutcome.NOT_FOUND), outcomes);
+        assertEquals(Status.REJECTED, status(waiting));
+        assertEquals(Status.WAITING, status(foreign));
+    }
+
+    @Test
+    void idsAndItemTogetherAreRejected() {
+        assertThrows(ValidationException.class,
+                () -> bookingService.updateAll(owner.getId(), new UpdateBookingsDto(List.of(1L), item.getId()), true));
+    }
+
+    private Map<Long, DecisionOutcome> decide(User user, UpdateBookingsDto decision, boolean approved) {
+        return bookingService.updateAll(user.getId(), decision, approved).stream()
+                .collect(Collectors.toMap(BookingDecisionDto::getBookingId, BookingDecisionDto::getOutcome));
+    }
+
+    private Long book(int day, Status status) {
+        return bookingRepository.save(booking(item, booker, day, status)).getId();
+    }
+
+    private static Booking booking(Item bookedItem, User bookingUser, int day, Status status) {
+        LocalDateTime start = LocalDateTime.now().plusDays(day);
+
+        return Booking.builder()
+                .start(start)
+                .end(start.plusHours(1))
+                .item(bookedItem)
+                .booker(bookingUser)
+                .status(status)
+                .build();
+    }
+
+    private Status status(Long bookingId) {
+        return bookingRepository.findById(bookingId).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,204 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ServiceOverloadedException;
+import ru.practicum.shareit.exception.UnavailableException;
+import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.CommentWriteBehind;
+import ru.practicum.shareit.item.comment.CreateCommentDto;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemViewCache;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "shareit.comments.write-behind.enabled=true",
+        "shareit.comments.write-behind.linger=300ms"
+})
+class CommentWriteBehindTest {
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ItemViewCache itemViewCache;
+
+    private User owner;
+    private User author;
+    private Long itemId;
+
+    @BeforeEach
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        owner = userRepository.save(new User(null, "Владелец", "owner-" + suffix + "@comments.ru"));
+        author = userRepository.save(new User(null, "Автор", "author-" + suffix + "@comments.ru"));
+        itemId = itemService.create(owner.getId(), new CreateItemDto(null, "Палатка", "Палатка на двоих", true))
+                .getId();
+        Item item = itemRepository.findById(itemId).orElseThrow();
+        LocalDateTime start = LocalDateTime.now().minusDays(3);
+        bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusDays(1))
+                .item(item)
+                .booker(author)
+                .status(Status.APPROVED)
+                .build());
+    }
+
+    @Test
+    void acceptedCommentIsSeenByAuthorBeforeAndAfterItIsWritten() throws Exception {
+        CommentDto accepted = itemService.createComment(itemId, author.getId(), new CreateCommentDto("Отличная"));
+
+        assertEquals(List.of(accepted.getId()), commentIds(itemService.getById(itemId, author.getId()).getComments()));
+
+        awaitWritten(accepted.getId());
+        assertEquals(List.of(accepted.getId()), commentIds(itemService.getById(itemId, author.getId()).getComments()));
+        assertEquals(List.of(accepted.getId()), commentIds(itemService.getById(itemId, owner.getId()).getComments()));
+    }
+
+    @Test
+    void commentWithoutPastBookingIsRejectedUpFront() {
+        assertThrows(UnavailableException.class,
+                () -> itemService.createComment(itemId, owner.getId(), new CreateCommentDto("Моя же вещь")));
+    }
+
+    @Test
+    void fullQueueIsRejectedAndStopFlushesTheRest() throws Exception {
+        CommentWriteBehind writeBehind = new CommentWriteBehind(jdbcTemplate, transactionTemplate, itemViewCache,
+                new SimpleMeterRegistry(), true, 2, 100, Duration.ofSeconds(1));
+
+        CommentDto first = writeBehind.submit(itemId, author, "Первый");
+        CommentDto second = writeBehind.submit(itemId, author, "Второй");
+        assertThrows(ServiceOverloadedException.class, () -> writeBehind.submit(itemId, author, "Третий"));
+        assertEquals(2, writeBehind.findPending(itemId, author.getId()).size());
+
+        writeBehind.stop();
+
+        assertTrue(commentRepository.existsById(first.getId()));
+        assertTrue(commentRepository.existsById(second.getId()));
+        assertTrue(writeBehind.findPending(itemId, author.getId()).isEmpty());
+        assertThrows(ServiceOverloadedException.class, () -> writeBehind.submit(itemId, author, "После остановки"));
+    }
+
+    @Test
+    void batchIsRetriedWhileNoTransactionCanBeOpened() throws Exception {
+        AtomicInteger outages = new AtomicInteger(2);
+        PlatformTransactionManager flaky = new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                if (outages.getAndDecrement() > 0) {
+                    throw new CannotCreateTransactionException("База недоступна");
+                }
+                return transactionManager.getTransaction(definition);
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+                transactionManager.commit(status);
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+                transactionManager.rollback(status);
+            }
+        };
+        CommentWriteBehind writeBehind = new CommentWriteBehind(jdbcTemplate, new TransactionTemplate(flaky),
+                itemViewCache, new SimpleMeterRegistry(), true, 10, 10, Duration.ofMillis(10));
+        writeBehind.start();
+
+        CommentDto comment = writeBehind.submit(itemId, author, "Несмотря на сбой");
+        awaitWritten(comment.getId());
+        writeBehind.stop();
+
+        assertTrue(outages.get() < 0);
+        assertTrue(writeBehind.findPending(itemId, author.getId()).isEmpty());
+    }
+
+    @Test
+    void everyCommentAcceptedWhileStoppingIsWritten() throws Exception {
+        CommentWriteBehind writeBehind = new CommentWriteBehind(jdbcTemplate, transactionTemplate, itemViewCache,
+                new SimpleMeterRegistry(), true, 100_000, 100, Duration.ofMillis(10));
+        writeBehind.start();
+        Queue<Long> accepted = new ConcurrentLinkedQueue<>();
+        List<Thread> authors = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    while (true) {
+                        accepted.add(writeBehind.submit(itemId, author, "Отзыв").getId());
+                    }
+                } catch (ServiceOverloadedException e) {
+                    // Intake is closed.
+                }
+            });
+            thread.start();
+            authors.add(thread);
+        }
+
+        Thread.sleep(200);
+        writeBehind.stop();
+        for (Thread thread : authors) {
+            thread.join();
+        }
+
+        Integer stored = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM comments WHERE item_id = ?",
+                Integer.class, itemId);
+        assertEquals(accepted.size(), stored);
+    }
+
+    private void awaitWritten(Long commentId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!commentRepository.existsById(commentId) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(commentRepository.existsById(commentId));
+    }
+
+    private static List<Long> commentIds(List<CommentDto> comments) {
+        return comments.stream().map(CommentDto::getId).collect(Collectors.toList());
+    }
+}
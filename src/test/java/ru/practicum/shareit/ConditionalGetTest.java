@@ -0,0 +1,146 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.UpdateItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UpdateUserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.QueryBudget;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalGetTest {
+
+    private static final String HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+
+    private User owner;
+    private User booker;
+    private Long itemId;
+    private Long bookingId;
+
+    @BeforeEach
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        owner = userRepository.save(new User(null, "Владелец", "owner-" + suffix + "@etag.ru"));
+        booker = userRepository.save(new User(null, "Арендатор", "booker-" + suffix + "@etag.ru"));
+        itemId = itemService.create(owner.getId(), new CreateItemDto(null, "Пила", "Цепная пила", true)).getId();
+        Item item = itemRepository.findById(itemId).orElseThrow();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingId = bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(Status.WAITING)
+                .build()).getId();
+    }
+
+    @Test
+    void cachedItemViewIsNotModifiedWithoutQueries() throws Exception {
+        String path = "/items/" + itemId;
+        String eTag = fetch(path, owner.getId());
+
+        QueryBudget.assertAtMost(0, () -> expectNotModified(path, owner.getId(), eTag));
+
+        itemService.update(itemId, owner.getId(), new UpdateItemDto(null, "Бензопила", null, null));
+        assertNotEquals(eTag, fetch(path, owner.getId(), eTag));
+    }
+
+    @Test
+    void userIsNotModifiedUntilUpdated() throws Exception {
+        String path = "/users/" + booker.getId();
+        String eTag = fetch(path, booker.getId());
+
+        QueryBudget.assertAtMost(0, () -> expectNotModified(path, booker.getId(), eTag));
+
+        userService.update(booker.getId(), UpdateUserDto.builder().name("Новое имя").build());
+        assertNotEquals(eTag, fetch(path, booker.getId(), eTag));
+    }
+
+    @Test
+    void bookingIsNotModifiedUntilDecidedAndHiddenFromStrangers() throws Exception {
+        String path = "/bookings/" + bookingId;
+        String eTag = fetch(path, booker.getId());
+
+        // Only the versions are read, the booking itself is not loaded.
+        QueryBudget.assertAtMost(1, () -> expectNotModified(path, booker.getId(), eTag));
+        mockMvc.perform(get(path).header(HEADER, owner.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(path).header(HEADER, Long.MAX_VALUE).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotFound());
+
+        bookingService.update(owner.getId(), bookingId, true);
+        assertNotEquals(eTag, fetch(path, booker.getId(), eTag));
+    }
+
+    private String fetch(String path, Long userId) throws Exception {
+        MvcResult result = mockMvc.perform(get(path).header(HEADER, userId))
+                .andExpect(status().isOk())
+                .andReturn();
+        String eTag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        return eTag;
+    }
+
+    private String fetch(String path, Long userId, String staleETag) throws Exception {
+        MvcResult result = mockMvc.perform(get(path).header(HEADER, userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, staleETag))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        return result.getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private Void expectNotModified(String path, Long userId, String eTag) {
+        try {
+            mockMvc.perform(get(path).header(HEADER, userId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+
+        return null;
+    }
+}
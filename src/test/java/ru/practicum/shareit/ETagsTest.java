@@ -0,0 +1,28 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.util.ETags;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ETagsTest {
+
+    @Test
+    void partsDoNotShiftIntoEachOther() {
+        assertNotEquals(ETags.of("a, b", "c"), ETags.of("a", "b, c"));
+        assertNotEquals(ETags.of("1:a", "b"), ETags.of("1", "a1:b"));
+        assertNotEquals(ETags.of("ab", ""), ETags.of("a", "b"));
+    }
+
+    @Test
+    void nullDiffersFromItsText() {
+        assertNotEquals(ETags.of(1L, null), ETags.of(1L, "null"));
+        assertNotEquals(ETags.of((Object) null), ETags.of("-"));
+    }
+
+    @Test
+    void samePartsGiveSameTag() {
+        assertEquals(ETags.of(1L, "Вещь", 3), ETags.of(1L, "Вещь", 3));
+    }
+}
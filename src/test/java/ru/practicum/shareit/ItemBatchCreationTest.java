@@ -0,0 +1,66 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shareit.items.batch.max-size=3")
+@AutoConfigureMockMvc
+class ItemBatchCreationTest {
+
+    private static final String HEADER = "X-Sharer-User-Id";
+    private static final String ITEM = "{\"name\": \"Дрель\", \"description\": \"Простая дрель\", \"available\": true}";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        owner = userRepository.save(new User(null, "Владелец", "owner-" + suffix + "@batch.ru"));
+    }
+
+    @Test
+    void validRowsAreCreatedAndInvalidOnesReported() throws Exception {
+        mockMvc.perform(batch("[" + ITEM + ", {\"name\": \"Пила\"}, " + ITEM + "]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.createdIds.length()").value(2))
+                .andExpect(jsonPath("$.errors[0].index").value(1));
+    }
+
+    @Test
+    void nullRowRejectsBatch() throws Exception {
+        mockMvc.perform(batch("[" + ITEM + ", null]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void oversizedBatchIsRejected() throws Exception {
+        mockMvc.perform(batch("[" + String.join(", ", ITEM, ITEM, ITEM, ITEM) + "]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private RequestBuilder batch(String body) {
+        return post("/items/batch")
+                .header(HEADER, owner.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.CreateItemsResultDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.QueryBudget;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class ItemBatchInsertBudgetTest {
+
+    private static final int ITEMS = 1000;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemService itemService;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    @Test
+    void itemsAreInsertedInJdbcBatches() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User owner = userRepository.save(new User(null, "Владелец", "owner-" + suffix + "@insert.ru"));
+        List<CreateItemDto> itemDtos = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemDtos.add(new CreateItemDto(null, "Вещь " + i, "Описание " + i, true));
+        }
+
+        // Per batch one insert and at most one sequence call, plus the owner lookup.
+        int budget = 2 * ITEMS / batchSize + 2;
+        CreateItemsResultDto result = QueryBudget.assertAtMost(budget,
+                () -> itemService.createAll(owner.getId(), itemDtos));
+
+        assertEquals(ITEMS, result.getCreatedIds().size());
+        assertEquals(ITEMS, itemRepository.findAllById(result.getCreatedIds()).size());
+    }
+}
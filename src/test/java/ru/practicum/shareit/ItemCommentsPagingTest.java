@@ -0,0 +1,120 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentCursor;
+import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.comment.CommentDtoResponse;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ItemCommentsPagingTest {
+
+    private static final int COMMENTS = 25;
+    private static final int EMBEDDED = 10;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemService itemService;
+
+    private User owner;
+    private Long itemId;
+    private Long quietItemId;
+    private List<Long> newestFirst;
+
+    @BeforeAll
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        owner = userRepository.save(new User(null, "Владелец", "owner-" + suffix + "@paging.ru"));
+        User author = userRepository.save(new User(null, "Автор", "author-" + suffix + "@paging.ru"));
+        itemId = itemService.create(owner.getId(), new CreateItemDto(null, "Лодка", "Надувная лодка", true)).getId();
+        quietItemId = itemService.create(owner.getId(), new CreateItemDto(null, "Весло", "Весло", true)).getId();
+        Item item = itemRepository.findById(itemId).orElseThrow();
+
+        // Every third comment shares its time with the next one, so ties are broken by id.
+        LocalDateTime first = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < COMMENTS; i++) {
+            comments.add(commentRepository.save(Comment.builder()
+                    .text("Отзыв " + i)
+                    .item(item)
+                    .author(author)
+                    .created(first.plusMinutes(i - i % 3))
+                    .build()));
+        }
+        newestFirst = comments.stream()
+                .sorted(Comparator.comparing(Comment::getCreated).thenComparing(Comment::getId).reversed())
+                .map(Comment::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void itemViewEmbedsNewestCommentsAndTotal() {
+        ItemDto view = itemService.getById(itemId, owner.getId());
+
+        assertEquals(newestFirst.subList(0, EMBEDDED),
+                view.getComments().stream().map(CommentDto::getId).collect(Collectors.toList()));
+        assertEquals(COMMENTS, view.getCommentsCount());
+    }
+
+    @Test
+    void ownerListingEmbedsNewestCommentsAndTotals() {
+        List<ItemDtoResponse> items = itemService.getByUserId(owner.getId());
+        ItemDtoResponse busy = items.stream().filter(i -> i.getId().equals(itemId)).findFirst().orElseThrow();
+        ItemDtoResponse quiet = items.stream().filter(i -> i.getId().equals(quietItemId)).findFirst().orElseThrow();
+
+        assertEquals(newestFirst.subList(0, EMBEDDED),
+                busy.getComments().stream().map(CommentDtoResponse::getId).collect(Collectors.toList()));
+        assertEquals(COMMENTS, busy.getCommentsCount());
+        assertEquals(0, quiet.getCommentsCount());
+    }
+
+    @Test
+    void keysetPagesWalkAllCommentsOnce() {
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        List<CommentDto> page;
+        do {
+            page = itemService.getComments(itemId, cursor, 7);
+            page.forEach(comment -> walked.add(comment.getId()));
+            cursor = page.isEmpty() ? null : CommentCursor.after(page.get(page.size() - 1)).encode();
+        } while (page.size() == 7);
+
+        assertEquals(newestFirst, walked);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(ValidationException.class, () -> itemService.getComments(itemId, "не-курсор", 7));
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.model.IndexedItem;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemSearchIndex;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Builds an index of its own over the shared database; every item gets a word no other test uses.
+ */
+@SpringBootTest
+class ItemSearchIndexTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private String word;
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        owner = userRepository.save(new User(null, "Владелец", "owner-" + suffix + "@index.ru"));
+        word = "слово" + suffix;
+        index = new ItemSearchIndex(itemRepository, true);
+    }
+
+    @Test
+    void buildIndexesOnlyAvailableItems() {
+        Item available = save("Дрель " + word, true);
+        save("Пила " + word, false);
+
+        index.build();
+
+        assertEquals(List.of(available.getId()), ids(word));
+    }
+
+    @Test
+    void searchFindsPartsOfWordsOfAnyLength() {
+        Item item = save("Дрель-шуруповерт " + word, true);
+        index.build();
+
+        assertEquals(List.of(item.getId()), ids(word));
+        assertEquals(List.of(item.getId()), ids("УРУПОВЕРТ " + word));
+        assertTrue(ids("шуруп").contains(item.getId()));
+        assertTrue(ids("ь-ш").contains(item.getId()));
+        assertTrue(ids(word + "х").isEmpty());
+        assertTrue(ids("верт-дрель " + word).isEmpty());
+    }
+
+    @Test
+    void indexReplacesItemAndRemoveDropsIt() {
+        Item item = save("Дрель " + word, true);
+        index.build();
+
+        item.setName("Перфоратор " + word);
+        index.index(item);
+        assertEquals(List.of(item.getId()), ids("перфоратор " + word));
+        assertTrue(ids("дрель " + word).isEmpty());
+
+        item.setAvailable(false);
+        index.index(item);
+        assertTrue(ids(word).isEmpty());
+
+        item.setAvailable(true);
+        index.index(item);
+        index.remove(item.getId());
+        assertTrue(ids(word).isEmpty());
+    }
+
+    @Test
+    void changeMadeDuringBuildIsNotOverwritten() {
+        Item item = save("Дрель " + word, true);
+        item.setName("Перфоратор " + word);
+
+        index.index(item);
+        index.build();
+
+        assertEquals(List.of(item.getId()), ids("Перфоратор " + word));
+        assertTrue(ids("Дрель " + word).isEmpty());
+    }
+
+    @Test
+    void removalMadeDuringBuildIsNotUndone() {
+        Item item = save("Дрель " + word, true);
+
+        index.remove(item.getId());
+        index.build();
+
+        assertTrue(ids(word).isEmpty());
+        assertTrue(index.isReady());
+    }
+
+    @Test
+    void pageStartsAfterCursorAndSkipsFrom() {
+        List<Long> all = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            all.add(save("Вещь-" + i + " " + word, true).getId());
+        }
+        index.build();
+        long beforeFirst = all.get(0) - 1;
+
+        assertEquals(all.subList(1, 4), page(word, beforeFirst, 1, 3));
+        assertEquals(all.subList(3, 6), page(word, all.get(2), 0, 10));
+        assertEquals(all.subList(4, 5), page(word, all.get(2), 1, 1));
+        assertTrue(page(word, all.get(5), 0, 10).isEmpty());
+        // A query without letters or digits walks the documents themselves.
+        assertEquals(all.subList(2, 4), page("-", beforeFirst, 2, 2));
+    }
+
+    private Item save(String name, boolean available) {
+        return itemRepository.save(new Item(null, name, "Вещь для теста", available, owner, null, null, null, null));
+    }
+
+    private List<Long> ids(String text) {
+        return page(text, 0, 0, 100);
+    }
+
+    private List<Long> page(String text, long afterId, long from, int size) {
+        return index.search(text, afterId, from, size).stream().map(IndexedItem::getId).collect(Collectors.toList());
+    }
+}
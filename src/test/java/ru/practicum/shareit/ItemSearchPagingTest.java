@@ -0,0 +1,143 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.repository.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pages /items/search through the index; {@link ItemSearchPagingWithoutIndexTest} runs the same against the database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemSearchPagingTest {
+
+    private static final int ITEMS = 7;
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+
+    private String word;
+    private List<Long> ids;
+
+    @BeforeEach
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        word = "страница" + suffix;
+        User owner = userRepository.save(new User(null, "Владелец", "owner-" + suffix + "@paging.ru"));
+
+        ids = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            ids.add(itemService.create(owner.getId(), new CreateItemDto(null, "Вещь " + word, "Описание " + i, true))
+                    .getId());
+        }
+        // The last item is not available, so it is never found.
+        itemService.create(owner.getId(), new CreateItemDto(null, "Вещь " + word, "Описание", false));
+    }
+
+    boolean indexed() {
+        return true;
+    }
+
+    @Test
+    void fromAndSizeCutThePage() throws Exception {
+        assertEquals(indexed(), itemSearchIndex.isReady());
+
+        MvcResult result = search(get("/items/search").param("text", word).param("from", "2").param("size", "3"));
+
+        assertEquals(ids.subList(2, 5), ids(result));
+        assertNotNull(result.getResponse().getHeader(NEXT_CURSOR));
+    }
+
+    @Test
+    void cursorWalksAcrossPageBoundaries() throws Exception {
+        List<Long> found = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/items/search").param("text", word).param("size", "3");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MvcResult result = search(request);
+            List<Long> page = ids(result);
+            found.addAll(page);
+            pageSizes.add(page.size());
+            cursor = result.getResponse().getHeader(NEXT_CURSOR);
+        } while (cursor != null);
+
+        assertEquals(ids, found);
+        assertEquals(List.of(3, 3, 1), pageSizes);
+    }
+
+    @Test
+    void cursorAndFromAddUp() throws Exception {
+        MvcResult first = search(get("/items/search").param("text", word).param("size", "2"));
+        String cursor = first.getResponse().getHeader(NEXT_CURSOR);
+
+        MvcResult result = search(get("/items/search").param("text", word.toUpperCase())
+                .param("cursor", cursor).param("from", "1").param("size", "2"));
+
+        assertEquals(ids.subList(3, 5), ids(result));
+    }
+
+    @Test
+    void withoutSizeEverythingIsReturned() throws Exception {
+        MvcResult result = search(get("/items/search").param("text", word));
+
+        assertEquals(ids, ids(result));
+        assertNull(result.getResponse().getHeader(NEXT_CURSOR));
+        assertTrue(ids(search(get("/items/search").param("text", word).param("from", "7"))).isEmpty());
+    }
+
+    @Test
+    void invalidPageIsRejected() throws Exception {
+        mockMvc.perform(get("/items/search").param("text", word).param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/items/search").param("text", word).param("from", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private MvcResult search(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+    }
+
+    private List<Long> ids(MvcResult result) throws Exception {
+        List<Long> found = new ArrayList<>();
+        for (JsonNode item : objectMapper.readTree(result.getResponse().getContentAsByteArray())) {
+            found.add(item.get("id").asLong());
+        }
+        return found;
+    }
+}
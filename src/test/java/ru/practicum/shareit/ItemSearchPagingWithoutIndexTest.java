@@ -0,0 +1,12 @@
+package ru.practicum.shareit;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "shareit.search.index.enabled=false")
+class ItemSearchPagingWithoutIndexTest extends ItemSearchPagingTest {
+
+    @Override
+    boolean indexed() {
+        return false;
+    }
+}
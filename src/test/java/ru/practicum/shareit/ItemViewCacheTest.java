@@ -0,0 +1,104 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.comment.CreateCommentDto;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemViewCache;
+import ru.practicum.shareit.user.dto.UpdateUserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class ItemViewCacheTest {
+
+    private static final Long OWNER_ID = 1L;
+    private static final Long USER_ID = 2L;
+
+    @Autowired
+    private ItemViewCache itemViewCache;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void viewLoadedBeforeEvictionIsNotStored() {
+        Long itemId = Long.MAX_VALUE - 1;
+        long generation = itemViewCache.generation(itemId);
+
+        itemViewCache.evict(itemId);
+        itemViewCache.put(itemId, generation, OWNER_ID, USER_ID, view(itemId, "Старое название"));
+
+        assertNull(itemViewCache.get(itemId, USER_ID));
+        assertNull(itemViewCache.getETag(itemId, USER_ID));
+    }
+
+    @Test
+    void viewLoadedAfterEvictionIsStored() {
+        Long itemId = Long.MAX_VALUE - 2;
+        itemViewCache.evict(itemId);
+        long generation = itemViewCache.generation(itemId);
+
+        itemViewCache.put(itemId, generation, OWNER_ID, USER_ID, view(itemId, "Новое название"));
+
+        assertNotNull(itemViewCache.get(itemId, USER_ID));
+        assertNotNull(itemViewCache.getETag(itemId, USER_ID));
+        assertNull(itemViewCache.get(itemId, OWNER_ID));
+    }
+
+    @Test
+    void renamingCommentAuthorEvictsCachedView() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User owner = userRepository.save(new User(null, "Владелец", "owner-" + suffix + "@views.ru"));
+        User author = userRepository.save(new User(null, "Автор", "author-" + suffix + "@views.ru"));
+        Long itemId = itemService.create(owner.getId(), new CreateItemDto(null, "Лодка", "Надувная лодка", true))
+                .getId();
+        LocalDateTime start = LocalDateTime.now().minusDays(3);
+        bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusDays(1))
+                .item(itemRepository.findById(itemId).orElseThrow())
+                .booker(author)
+                .status(Status.APPROVED)
+                .build());
+        itemService.createComment(itemId, author.getId(), new CreateCommentDto("Не протекает"));
+        itemService.getById(itemId, author.getId());
+        assertNotNull(itemViewCache.get(itemId, author.getId()));
+
+        userService.update(author.getId(), UpdateUserDto.builder().name("Переименованный").build());
+
+        assertNull(itemViewCache.get(itemId, author.getId()));
+        assertEquals(List.of("Переименованный"), itemService.getById(itemId, author.getId()).getComments().stream()
+                .map(CommentDto::getAuthorName)
+                .collect(Collectors.toList()));
+    }
+
+    private static ItemDto view(Long itemId, String name) {
+        return ItemDto.builder().id(itemId).name(name).description("Вещь").available(true).build();
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoShortResponse;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.comment.CommentDtoResponse;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.util.PrebuiltWriterJsonConverter;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class JsonSerializationTest {
+
+    private static final List<LocalDateTime> DATES = List.of(
+            LocalDateTime.of(2024, 1, 2, 3, 4),
+            LocalDateTime.of(2024, 12, 31, 23, 59, 59, 500_000_000),
+            LocalDateTime.of(2024, 6, 15, 0, 0, 0, 123_456_789),
+            LocalDateTime.of(2024, 6, 15, 12, 30, 5, 1_000),
+            LocalDateTime.of(1, 1, 1, 0, 0),
+            LocalDateTime.of(10000, 1, 1, 0, 0));
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 10, 0, 0, 250_000_000);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MappingJackson2HttpMessageConverter jsonConverter;
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
+    @Test
+    void datesAreWrittenAsIsoLocalDateTime() throws Exception {
+        assertTrue(objectMapper.getRegisteredModuleIds().contains(new BlackbirdModule().getTypeId()));
+
+        for (LocalDateTime date : DATES) {
+            assertEquals('"' + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(date) + '"',
+                    objectMapper.writeValueAsString(date));
+        }
+    }
+
+    @Test
+    void listingsAreWrittenAsByDefaultJackson() throws Exception {
+        ObjectMapper plain = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        List<BookingDto> bookings = bookings();
+        List<ItemDtoResponse> items = items();
+
+        assertEquals(plain.writeValueAsString(bookings), objectMapper.writeValueAsString(bookings));
+        assertEquals(plain.writeValueAsString(items), objectMapper.writeValueAsString(items));
+    }
+
+    @Test
+    void responsesAreWrittenWithPrebuiltWriters() throws Exception {
+        assertTrue(jsonConverter instanceof PrebuiltWriterJsonConverter);
+        assertTrue(handlerAdapter.getMessageConverters().contains(jsonConverter));
+
+        Type bookingsType = new ParameterizedTypeReference<List<BookingDto>>() { }.getType();
+        Type itemsType = new ParameterizedTypeReference<List<ItemDtoResponse>>() { }.getType();
+        for (int i = 0; i < 2; i++) {
+            assertEquals(objectMapper.writeValueAsString(bookings()), write(bookings(), bookingsType));
+            assertEquals(objectMapper.writeValueAsString(items()), write(items(), itemsType));
+            assertEquals(objectMapper.writeValueAsString(items().get(0)), write(items().get(0), ItemDtoResponse.class));
+        }
+    }
+
+    private String write(Object value, Type type) throws Exception {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        jsonConverter.write(value, type, MediaType.APPLICATION_JSON, message);
+        return message.getBodyAsString(StandardCharsets.UTF_8);
+    }
+
+    private static List<BookingDto> bookings() {
+        return List.of(new BookingDto(1L, START, START.plusHours(2), 2L, "Дрель", 3L, "Арендатор", Status.APPROVED));
+    }
+
+    private static List<ItemDtoResponse> items() {
+        return List.of(new ItemDtoResponse(2L, "Дрель", "Простая дрель", true,
+                new BookingDtoShortResponse(1L, START, START.plusHours(2), 2L, 3L), null,
+                List.of(new CommentDtoResponse(4L, "Отличная", 2L, "Дрель", 3L, "Арендатор", START)), 1L));
+    }
+}
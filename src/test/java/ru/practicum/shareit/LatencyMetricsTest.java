@@ -0,0 +1,129 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class LatencyMetricsTest {
+
+    private static final String HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemService itemService;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        owner = userRepository.save(new User(null, "Владелец", "owner-" + suffix + "@metrics.ru"));
+        booker = userRepository.save(new User(null, "Арендатор", "booker-" + suffix + "@metrics.ru"));
+        Long itemId = itemService.create(owner.getId(), new CreateItemDto(null, "Дрель", "Ударная дрель", true))
+                .getId();
+        LocalDateTime start = LocalDateTime.now().minusDays(2);
+        bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusDays(1))
+                .item(itemRepository.findById(itemId).orElseThrow())
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build());
+    }
+
+    @Test
+    void endpointsAreTimedByUri() throws Exception {
+        mockMvc.perform(get("/users/" + owner.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/items").header(HEADER, owner.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/bookings/owner").header(HEADER, owner.getId())).andExpect(status().isOk());
+
+        for (String uri : new String[]{"/users/{id}", "/items", "/bookings/owner"}) {
+            assertNotNull(meterRegistry.find("http.server.requests").tag("uri", uri).tag("method", "GET").timer(),
+                    uri);
+        }
+    }
+
+    @Test
+    void repositoryMethodsAreTimedByRepositoryAndMethod() {
+        itemService.getByUserId(owner.getId());
+
+        assertTimed("ItemRepository", "findDtosByOwnerId");
+        assertTimed("BookingRepository", "findLastByItemOwnerId");
+        assertTimed("BookingRepository", "findNextByItemOwnerId");
+        assertTimed("CommentRepository", "findNewestByItemOwnerId");
+    }
+
+    @Test
+    void ownerListingIsTimedPerState() throws Exception {
+        for (State state : State.values()) {
+            mockMvc.perform(get("/bookings/owner").header(HEADER, owner.getId()).param("state", state.name()))
+                    .andExpect(status().isOk());
+
+            Timer timer = meterRegistry.find("shareit.bookings.list.query")
+                    .tag("role", "owner")
+                    .tag("state", state.name())
+                    .timer();
+            assertNotNull(timer, state.name());
+            assertTrue(timer.count() > 0, state.name());
+        }
+    }
+
+    @Test
+    void ownerItemsSplitDatabaseFromMapping() {
+        long db = count("db");
+        long mapping = count("mapping");
+
+        itemService.getByUserId(owner.getId());
+
+        assertTrue(count("db") > db);
+        assertTrue(count("mapping") > mapping);
+    }
+
+    private void assertTimed(String repository, String method) {
+        Timer timer = meterRegistry.find("spring.data.repository.invocations")
+                .tag("repository", repository)
+                .tag("method", method)
+                .timer();
+        assertNotNull(timer, repository + "." + method);
+        assertTrue(timer.count() > 0, repository + "." + method);
+    }
+
+    private long count(String phase) {
+        Timer timer = meterRegistry.find("shareit.items.owner.list").tag("phase", phase).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
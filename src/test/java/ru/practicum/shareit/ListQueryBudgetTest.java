@@ -0,0 +1,142 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.QueryBudget;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListQueryBudgetTest {
+
+    private static final int ITEMS = 1000;
+    private static final int BOOKERS = 5;
+    // The listing itself plus the user lookup when the identity cache is cold.
+    private static final int BOOKING_LIST_BUDGET = 2;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+
+    private User owner;
+    private User booker;
+    private String word;
+
+    @BeforeAll
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        word = "дрель" + suffix;
+        owner = userRepository.save(new User(null, "Владелец", "owner-" + suffix + "@budget.ru"));
+
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            bookers.add(userRepository.save(
+                    new User(null, "Арендатор " + i, "booker-" + i + "-" + suffix + "@budget.ru")));
+        }
+        booker = bookers.get(0);
+
+        List<CreateItemDto> itemDtos = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemDtos.add(new CreateItemDto(null, word + " " + i, "Описание дрели " + i, true));
+        }
+        List<Item> items = itemRepository.findAllById(itemService.createAll(owner.getId(), itemDtos).getCreatedIds());
+        assertEquals(ITEMS, items.size());
+
+        LocalDateTime now = LocalDateTime.now();
+        Status[] statuses = Status.values();
+        List<Booking> bookings = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = items.get(i);
+            for (int j = 0; j < BOOKERS; j++) {
+                LocalDateTime start = now.plusDays((i + j) % 3 - 1).plusHours(j - 2);
+                bookings.add(Booking.builder()
+                        .start(start)
+                        .end(start.plusHours(3))
+                        .item(item)
+                        .booker(bookers.get(j))
+                        .status(statuses[(i + j) % statuses.length])
+                        .build());
+                comments.add(Comment.builder()
+                        .text("Отзыв " + j)
+                        .item(item)
+                        .author(bookers.get(j))
+                        .created(now.minusDays(j))
+                        .build());
+            }
+            // Booker 0 books every item once more, so its listing spans all items and their owner.
+            bookings.add(Booking.builder()
+                    .start(now.plusDays(5 + i))
+                    .end(now.plusDays(6 + i))
+                    .item(item)
+                    .booker(booker)
+                    .status(Status.WAITING)
+                    .build());
+        }
+        bookingRepository.saveAll(bookings);
+        commentRepository.saveAll(comments);
+    }
+
+    @ParameterizedTest
+    @EnumSource(State.class)
+    void getAllByBookerIdStaysWithinBudget(State state) {
+        QueryBudget.assertAtMost(BOOKING_LIST_BUDGET,
+                () -> bookingService.getAllByBookerId(booker.getId(), state.name()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(State.class)
+    void getAllByOwnerIdStaysWithinBudget(State state) {
+        QueryBudget.assertAtMost(BOOKING_LIST_BUDGET,
+                () -> bookingService.getAllByOwnerId(owner.getId(), state.name()));
+    }
+
+    @Test
+    void getByUserIdStaysWithinBudget() {
+        List<ItemDtoResponse> items = QueryBudget.assertAtMost(5, () -> itemService.getByUserId(owner.getId()));
+
+        assertEquals(ITEMS, items.size());
+    }
+
+    @Test
+    void searchStaysWithinBudget() {
+        List<ItemDto> items = QueryBudget.assertAtMost(1, () -> itemService.search(word, 0L, 0, ITEMS));
+
+        assertEquals(ITEMS, items.size());
+    }
+}
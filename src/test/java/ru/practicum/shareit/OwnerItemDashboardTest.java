@@ -0,0 +1,145 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.QueryBudget;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every item of an owner with 1200 items gets its own last and next APPROVED booking in a fixed number of queries.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OwnerItemDashboardTest {
+
+    private static final int ITEMS = 1200;
+    // User, items, last, next and comments.
+    private static final int QUERY_BUDGET = 5;
+    private static final int RUNS = 11;
+    private static final Duration MEDIAN_LIMIT = Duration.ofSeconds(1);
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemService itemService;
+
+    private User owner;
+    private final Map<Long, Long> lastByItem = new HashMap<>();
+    private final Map<Long, Long> nextByItem = new HashMap<>();
+
+    @BeforeAll
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        owner = userRepository.save(new User(null, "Владелец", "owner-" + suffix + "@dashboard.ru"));
+        User booker = userRepository.save(new User(null, "Арендатор", "booker-" + suffix + "@dashboard.ru"));
+
+        // A batch takes at most 1000 items, so they are created in two.
+        List<Long> itemIds = new ArrayList<>();
+        for (int from = 0; from < ITEMS; from += ITEMS / 2) {
+            List<CreateItemDto> itemDtos = new ArrayList<>();
+            for (int i = from; i < from + ITEMS / 2; i++) {
+                itemDtos.add(new CreateItemDto(null, "Вещь " + i, "Описание " + i, true));
+            }
+            itemIds.addAll(itemService.createAll(owner.getId(), itemDtos).getCreatedIds());
+        }
+        List<Item> items = itemRepository.findAllById(itemIds);
+
+        // Each item gets an older and a newer past booking, a nearer and a farther future one, and bookings in
+        // other statuses that are closer to now than any approved one. Every fifth item has no bookings at all.
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>();
+        List<Booking> last = new ArrayList<>();
+        List<Booking> next = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            if (i % 5 == 0) {
+                continue;
+            }
+            Item item = items.get(i);
+            int shift = i % 7;
+            bookings.add(booking(item, booker, now.minusDays(20 + shift), Status.APPROVED));
+            Booking latestPast = booking(item, booker, now.minusDays(10 + shift), Status.APPROVED);
+            Booking nearestFuture = booking(item, booker, now.plusDays(10 + shift), Status.APPROVED);
+            bookings.addAll(List.of(latestPast, nearestFuture));
+            bookings.add(booking(item, booker, now.plusDays(20 + shift), Status.APPROVED));
+            bookings.add(booking(item, booker, now.minusDays(1), Status.REJECTED));
+            bookings.add(booking(item, booker, now.plusDays(1), Status.WAITING));
+            last.add(latestPast);
+            next.add(nearestFuture);
+        }
+        bookingRepository.saveAll(bookings);
+        last.forEach(booking -> lastByItem.put(booking.getItem().getId(), booking.getId()));
+        next.forEach(booking -> nextByItem.put(booking.getItem().getId(), booking.getId()));
+    }
+
+    @Test
+    void everyItemGetsItsOwnLastAndNextBooking() {
+        List<ItemDtoResponse> items = QueryBudget.assertAtMost(QUERY_BUDGET,
+                () -> itemService.getByUserId(owner.getId()));
+
+        assertEquals(ITEMS, items.size());
+        for (ItemDtoResponse item : items) {
+            if (lastByItem.containsKey(item.getId())) {
+                assertEquals(lastByItem.get(item.getId()), item.getLastBooking().getId());
+                assertEquals(nextByItem.get(item.getId()), item.getNextBooking().getId());
+            } else {
+                assertNull(item.getLastBooking());
+                assertNull(item.getNextBooking());
+            }
+        }
+    }
+
+    @Test
+    void medianLatencyStaysBounded() {
+        itemService.getByUserId(owner.getId());
+
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long started = System.nanoTime();
+            itemService.getByUserId(owner.getId());
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+        Duration median = Duration.ofNanos(nanos[RUNS / 2]);
+
+        assertTrue(median.compareTo(MEDIAN_LIMIT) < 0, () -> "Медиана " + median.toMillis() + " мс");
+    }
+
+    private static Booking booking(Item item, User booker, LocalDateTime start, Status status) {
+        return Booking.builder()
+                .start(start)
+                .end(start.plusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,188 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ReactiveBookingService;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentDtoResponse;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ReactiveItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReactiveListingTest {
+
+    private static final int ITEMS = 6;
+    private static final int BOOKERS = 4;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ReactiveItemService reactiveItemService;
+    @Autowired
+    private ReactiveBookingService reactiveBookingService;
+
+    private User owner;
+    private User booker;
+    private String word;
+
+    @BeforeAll
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        word = "реактив" + suffix;
+        owner = userRepository.save(new User(null, "Владелец", "owner-" + suffix + "@reactive.ru"));
+
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            bookers.add(userRepository.save(new User(null, "Арендатор " + i,
+                    "booker-" + i + "-" + suffix + "@reactive.ru")));
+        }
+        booker = bookers.get(0);
+
+        LocalDateTime now = LocalDateTime.now();
+        Status[] statuses = Status.values();
+        Item firstItem = null;
+        for (int i = 0; i < ITEMS; i++) {
+            Long itemId = itemService.create(owner.getId(),
+                    new CreateItemDto(null, "Вещь " + word + " " + i, "Описание " + i, i % 3 != 0)).getId();
+            Item item = itemRepository.findById(itemId).orElseThrow();
+            if (firstItem == null) {
+                firstItem = item;
+            }
+            for (int j = 0; j < BOOKERS; j++) {
+                LocalDateTime start = now.plusDays((i + j) % 3 - 1).plusHours(j * 7 + i - 12);
+                bookingRepository.save(Booking.builder()
+                        .start(start)
+                        .end(start.plusHours(3))
+                        .item(item)
+                        .booker(bookers.get(j))
+                        .status(statuses[(i + j) % statuses.length])
+                        .build());
+                commentRepository.save(Comment.builder()
+                        .text("Отзыв " + j)
+                        .item(item)
+                        .author(bookers.get(j))
+                        .created(now.minusHours(i * BOOKERS + j))
+                        .build());
+            }
+        }
+        // The grid above has no booking of booker 0 running right now, so CURRENT gets one of its own.
+        bookingRepository.save(Booking.builder()
+                .start(now.minusHours(1))
+                .end(now.plusHours(1))
+                .item(firstItem)
+                .booker(booker)
+                .status(Status.WAITING)
+                .build());
+    }
+
+    @ParameterizedTest
+    @EnumSource(State.class)
+    void bookerListingsMatchBlockingService(State state) {
+        List<BookingDto> expected = bookingService.getAllByBookerId(booker.getId(), state.name());
+        List<BookingDto> actual = reactiveBookingService.getAllByBookerId(booker.getId(), state.name())
+                .collectList().block();
+
+        assertFalse(expected.isEmpty(), state.name());
+        assertEquals(describeBookings(expected), describeBookings(actual));
+    }
+
+    @ParameterizedTest
+    @EnumSource(State.class)
+    void ownerListingsMatchBlockingService(State state) {
+        List<BookingDto> expected = bookingService.getAllByOwnerId(owner.getId(), state.name());
+        List<BookingDto> actual = reactiveBookingService.getAllByOwnerId(owner.getId(), state.name())
+                .collectList().block();
+
+        assertFalse(expected.isEmpty(), state.name());
+        assertEquals(describeBookings(expected), describeBookings(actual));
+    }
+
+    @Test
+    void unknownStateAndUserAreRejectedLikeBlockingService() {
+        assertThrows(ValidationException.class, () -> reactiveBookingService.getAllByBookerId(booker.getId(), "BAD"));
+        assertThrows(ObjectNotFoundException.class,
+                () -> reactiveBookingService.getAllByOwnerId(-1L, State.ALL.name()).blockLast());
+        assertThrows(ObjectNotFoundException.class, () -> reactiveItemService.getByUserId(-1L).blockLast());
+    }
+
+    @Test
+    void ownerItemsMatchBlockingService() {
+        List<ItemDtoResponse> expected = itemService.getByUserId(owner.getId());
+        List<ItemDtoResponse> actual = reactiveItemService.getByUserId(owner.getId()).collectList().block();
+
+        assertEquals(ITEMS, actual.size());
+        assertEquals(describeItems(expected), describeItems(actual));
+    }
+
+    @Test
+    void searchMatchesBlockingService() {
+        List<ItemDto> expected = itemService.search(word, 0L, 1, 2);
+        List<ItemDto> actual = reactiveItemService.search(word, 0L, 1, 2).collectList().block();
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected.stream().map(ItemDto::getId).collect(Collectors.toList()),
+                actual.stream().map(ItemDto::getId).collect(Collectors.toList()));
+    }
+
+    private static List<String> describeBookings(List<BookingDto> bookings) {
+        return bookings.stream()
+                .map(b -> b.getId() + ":" + b.getStart() + ":" + b.getItem() + ":" + b.getBooker()
+                        + ":" + b.getStatus())
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> describeItems(List<ItemDtoResponse> items) {
+        return items.stream()
+                .sorted(Comparator.comparing(ItemDtoResponse::getId))
+                .map(i -> i.getId() + ":" + i.getAvailable()
+                        + ":" + (i.getLastBooking() == null ? null : i.getLastBooking().getId())
+                        + ":" + (i.getNextBooking() == null ? null : i.getNextBooking().getId())
+                        + ":" + (i.getComments() == null ? null : i.getComments().stream()
+                        .map(CommentDtoResponse::getId).collect(Collectors.toList()))
+                        + ":" + i.getCommentsCount())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ReactiveItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * With the index off both services search the database: the reactive one through R2DBC, the blocking one
+ * through JPA.
+ */
+@SpringBootTest(properties = "shareit.search.index.enabled=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReactiveSearchWithoutIndexTest {
+
+    private static final int ITEMS = 7;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ReactiveItemService reactiveItemService;
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+
+    private String word;
+
+    @BeforeAll
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        word = "поиск" + suffix;
+        User owner = userRepository.save(new User(null, "Владелец", "owner-" + suffix + "@fallback.ru"));
+
+        for (int i = 0; i < ITEMS; i++) {
+            // The word is in the name or in the description, in either case, and every third item is unavailable.
+            String name = i % 2 == 0 ? "Вещь " + word.toUpperCase() + " " + i : "Вещь " + i;
+            String description = i % 2 == 0 ? "Описание " + i : "Описание со словом " + word + " " + i;
+            itemService.create(owner.getId(), new CreateItemDto(null, name, description, i % 3 != 0));
+        }
+    }
+
+    @Test
+    void searchFallsBackToDatabaseLikeBlockingService() {
+        assertFalse(itemSearchIndex.isReady());
+
+        for (String text : List.of(word, word.toUpperCase(), "слово", "ВЕЩЬ " + word)) {
+            for (int from = 0; from < ITEMS; from += 2) {
+                List<String> expected = describe(itemService.search(text, 0L, from, 2));
+                List<String> actual = describe(reactiveItemService.search(text, 0L, from, 2).collectList().block());
+
+                assertEquals(expected, actual, () -> text);
+            }
+        }
+        assertEquals(4, itemService.search(word, 0L, 0, ITEMS).size());
+    }
+
+    private static List<String> describe(List<ItemDto> items) {
+        return items.stream()
+                .map(item -> item.getId() + ":" + item.getName() + ":" + item.getDescription() + ":"
+                        + item.getAvailable())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Migrates a database of its own that already has rows, the way an upgraded installation is migrated.
+ */
+class SchemaMigrationTest {
+
+    private static final int ALLOCATION_SIZE = 50;
+    private static final int ROWS = 60;
+
+    private JdbcDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createDatabase() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:migration-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void sequencesStartPastIdsTakenThroughIdentity() {
+        migrate("4");
+        for (int i = 0; i < ROWS; i++) {
+            jdbcTemplate.update("INSERT INTO users (name, email) VALUES (?, ?)", "Старый", "old-" + i + "@ids.ru");
+        }
+        jdbcTemplate.update("INSERT INTO items (name, description, is_available, owner_id) "
+                + "SELECT 'Вещь', 'Старая вещь', TRUE, user_id FROM users");
+
+        migrate(null);
+
+        assertSequenceAfterIds("users_seq", "SELECT MAX(user_id) FROM users");
+        assertSequenceAfterIds("items_seq", "SELECT MAX(item_id) FROM items");
+        assertSequenceAfterIds("bookings_seq", "SELECT COALESCE(MAX(booking_id), 0) FROM bookings");
+        assertSequenceAfterIds("comments_seq", "SELECT COALESCE(MAX(comment_id), 0) FROM comments");
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO users (name, email) VALUES ('Новый', 'new@ids.ru')"));
+    }
+
+    @Test
+    void schemaCreatedBeforeFlywayGetsEveryMigration() throws IOException {
+        // The schema as it was before migrations: the tables of V1, created through identity, without sequences.
+        String tables = Arrays.stream(StreamUtils.copyToString(
+                        new ClassPathResource("db/migration/V1__init_schema.sql").getInputStream(),
+                        StandardCharsets.UTF_8).split(";"))
+                .filter(statement -> !statement.contains("CREATE SEQUENCE"))
+                .collect(Collectors.joining(";"));
+        jdbcTemplate.execute(tables);
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('Старый', 'old@ids.ru')");
+
+        Properties properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .baselineOnMigrate(Boolean.parseBoolean(properties.getProperty("spring.flyway.baseline-on-migrate")))
+                .baselineVersion(properties.getProperty("spring.flyway.baseline-version"))
+                .load()
+                .migrate();
+
+        assertSequenceAfterIds("users_seq", "SELECT MAX(user_id) FROM users");
+        assertSequenceAfterIds("comments_seq", "SELECT COALESCE(MAX(comment_id), 0) FROM comments");
+    }
+
+    private void migrate(String target) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .target(target == null ? "latest" : target)
+                .load()
+                .migrate();
+    }
+
+    private void assertSequenceAfterIds(String sequence, String maxIdQuery) {
+        long maxId = jdbcTemplate.queryForObject(maxIdQuery, Long.class);
+        long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequence, Long.class);
+
+        // The first block Hibernate takes from the sequence ends at the value read.
+        assertTrue(next - ALLOCATION_SIZE + 1 > maxId, () -> sequence + ": " + next + ", max id " + maxId);
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.dto.UpdateItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UpdateUserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.QueryBudget;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Cache metrics read Hibernate statistics, which are only collected when asked for.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User owner;
+    private Long itemId;
+
+    @BeforeEach
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        owner = userRepository.save(new User(null, "Владелец", "owner-" + suffix + "@cache.ru"));
+        itemId = itemService.create(owner.getId(), new CreateItemDto(null, "Лестница", "Стремянка", true)).getId();
+    }
+
+    @Test
+    void itemIsReadFromCacheUntilChangedOrDeleted() {
+        itemRepository.findById(itemId);
+        QueryBudget.assertAtMost(0, () -> itemRepository.findById(itemId));
+
+        itemService.update(itemId, owner.getId(), new UpdateItemDto(null, "Лестница-трансформер", null, null));
+        Item updated = QueryBudget.assertAtMost(0, () -> itemRepository.findById(itemId).orElseThrow());
+        assertEquals("Лестница-трансформер", updated.getName());
+
+        itemService.delete(itemId);
+        assertFalse(itemRepository.findById(itemId).isPresent());
+    }
+
+    @Test
+    void userIsReadFromCacheUntilChangedOrDeleted() {
+        userRepository.findById(owner.getId());
+        QueryBudget.assertAtMost(0, () -> userRepository.findById(owner.getId()));
+
+        userService.update(owner.getId(), UpdateUserDto.builder().name("Новый владелец").build());
+        User updated = QueryBudget.assertAtMost(0, () -> userRepository.findById(owner.getId()).orElseThrow());
+        assertEquals("Новый владелец", updated.getName());
+
+        itemService.delete(itemId);
+        userService.deleteById(owner.getId());
+        assertFalse(userRepository.findById(owner.getId()).isPresent());
+    }
+
+    @Test
+    void ownerListingIsCachedUntilItemsChange() {
+        itemRepository.findDtosByOwnerId(owner.getId());
+        List<ItemDtoResponse> cached = QueryBudget.assertAtMost(0,
+                () -> itemRepository.findDtosByOwnerId(owner.getId()));
+        assertEquals(1, cached.size());
+
+        itemService.create(owner.getId(), new CreateItemDto(null, "Молоток", "Молоток", true));
+        assertEquals(2, itemRepository.findDtosByOwnerId(owner.getId()).size());
+    }
+
+    @Test
+    void cacheStatisticsArePublished() {
+        itemRepository.findById(itemId);
+
+        assertTrue(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tags("region", "items", "result", "hit")
+                .functionCounter()
+                .count() > 0);
+        assertNotNull(meterRegistry.find("hibernate.cache.query.requests").functionCounter());
+    }
+}
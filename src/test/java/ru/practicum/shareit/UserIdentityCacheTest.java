@@ -0,0 +1,76 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserIdentityCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class UserIdentityCacheTest {
+
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentLookupsOfOneUserGetIt() throws Exception {
+        User user = userRepository.save(new User(null, "Арендатор", email()));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<User>> lookups = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                lookups.add(executor.submit(() -> userIdentityCache.get(user.getId())));
+            }
+            for (Future<User> lookup : lookups) {
+                assertEquals("Арендатор", lookup.get().getName());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void evictedUserIsReadAgain() {
+        User user = userRepository.save(new User(null, "Старое имя", email()));
+        userIdentityCache.get(user.getId());
+
+        user.setName("Новое имя");
+        userRepository.save(user);
+        userIdentityCache.evict(user.getId());
+
+        assertEquals("Новое имя", userIdentityCache.get(user.getId()).getName());
+    }
+
+    @Test
+    void missingUserIsNotCached() {
+        // Far above anything the sequence hands out, so the id is free until inserted here.
+        long userId = 9_000_000_000L + ThreadLocalRandom.current().nextInt(1_000_000);
+        assertThrows(ObjectNotFoundException.class, () -> userIdentityCache.get(userId));
+
+        jdbcTemplate.update("INSERT INTO users (user_id, name, email) VALUES (?, ?, ?)", userId, "Новичок", email());
+
+        assertEquals("Новичок", userIdentityCache.get(userId).getName());
+    }
+
+    private static String email() {
+        return "user-" + UUID.randomUUID().toString().substring(0, 8) + "@identity.ru";
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.function.Supplier;
+
+/**
+ * Fails a test when a call issues more SQL statements than declared, listing the statements it issued.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class QueryBudget {
+
+    public static <T> T assertAtMost(int budget, Supplier<T> call) {
+        QueryCountInspector.capture();
+        try {
+            T result = call.get();
+
+            int count = QueryCountInspector.count();
+            if (count > budget) {
+                throw new AssertionError(String.format("Ожидалось не больше %d SQL-запросов, выполнено %d:%n%s",
+                        budget, count, String.join(System.lineSeparator(), QueryCountInspector.statements())));
+            }
+
+            return result;
+        } finally {
+            QueryCountInspector.reset();
+        }
+    }
+}